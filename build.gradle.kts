@@ -1,6 +1,7 @@
 plugins {
     id("java")
     kotlin("jvm") version "1.9.23"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.github.matteolanglois.geocraft"
@@ -17,12 +18,20 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.36")
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    jmh("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+
 java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(21))
 }
@@ -0,0 +1,118 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the downsampling of a sampled surface into the cells of a guess map.
+ * The surface is a synthetic terrain made of patches of a few materials spread over the whole
+ * range of ordinals, like roads, buildings and grass in a real city.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CellDownsamplerBenchmark {
+  /**
+   * Number of material ordinals, roughly the number of materials of the server.
+   */
+  static final int MATERIAL_COUNT = 2048;
+
+  @Param({"256", "1024", "2048"})
+  private int mapSize;
+
+  @Param({"4", "10", "16"})
+  private int scale;
+
+  private SurfaceGrid surface;
+  private CellGrid cells;
+  private CellDownsampler downsampler;
+  private MaterialHistogram histogram;
+
+  /**
+   * Generates the synthetic surface.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    int size = mapSize / scale * scale;
+    surface = generateSurface(size, 42L);
+    cells = new CellGrid(size / scale, size / scale, scale);
+    histogram = new MaterialHistogram(MATERIAL_COUNT);
+    downsampler = new CellDownsampler(scale, histogram);
+  }
+
+  /**
+   * Downsamples the whole surface on a single thread.
+   *
+   * @return The cell grid.
+   */
+  @Benchmark
+  public CellGrid downsample() {
+    downsampler.downsample(surface, cells, 0, 0, 0, 0, cells.getWidth(), cells.getDepth());
+    return cells;
+  }
+
+  /**
+   * Selects the dominant material of every cell without writing the cell grid.
+   *
+   * @param blackhole The blackhole consuming the dominant materials.
+   */
+  @Benchmark
+  public void dominantMaterial(Blackhole blackhole) {
+    for (int x = 0; x < surface.getWidth(); x += scale) {
+      for (int z = 0; z < surface.getDepth(); z += scale) {
+        for (int xx = 0; xx < scale; xx++) {
+          for (int zz = 0; zz < scale; zz++) {
+            histogram.add(surface.get(x + xx, z + zz));
+          }
+        }
+        blackhole.consume(histogram.getDominant());
+        histogram.reset();
+      }
+    }
+  }
+
+  /**
+   * Generates a square surface made of random rectangular patches of a few materials.
+   *
+   * @param size The number of columns per side.
+   * @param seed The seed of the generator.
+   * @return The surface grid.
+   */
+  static SurfaceGrid generateSurface(int size, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] palette = new int[12];
+    for (int i = 0; i < palette.length; i++) {
+      palette[i] = random.nextInt(MATERIAL_COUNT);
+    }
+    SurfaceGrid surface = new SurfaceGrid(0, 0, size, size);
+    for (int x = 0; x < size; x++) {
+      for (int z = 0; z < size; z++) {
+        surface.set(x, z, palette[0]);
+      }
+    }
+    int patches = size * size / 64;
+    for (int i = 0; i < patches; i++) {
+      int material = palette[random.nextInt(palette.length)];
+      int originX = random.nextInt(size);
+      int originZ = random.nextInt(size);
+      int endX = Math.min(size, originX + 1 + random.nextInt(24));
+      int endZ = Math.min(size, originZ + 1 + random.nextInt(24));
+      for (int x = originX; x < endX; x++) {
+        for (int z = originZ; z < endZ; z++) {
+          surface.set(x, z, material);
+        }
+      }
+    }
+    return surface;
+  }
+}
\ No newline at end of file
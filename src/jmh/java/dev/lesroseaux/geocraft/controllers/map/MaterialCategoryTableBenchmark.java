@@ -0,0 +1,74 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of the mapping of the dominant material of every cell to the block placed on the
+ * guess map, as done by the map builder before queuing the blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaterialCategoryTableBenchmark {
+  @Param({"256", "1024", "2048"})
+  private int mapSize;
+
+  @Param({"4", "10", "16"})
+  private int scale;
+
+  private CellGrid cells;
+  private MaterialMapping mapping;
+  private int[] placed;
+
+  /**
+   * Downsamples a synthetic surface and builds a table with a few materials per category.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    int size = mapSize / scale * scale;
+    SurfaceGrid surface = CellDownsamplerBenchmark.generateSurface(size, 42L);
+    cells = new CellGrid(size / scale, size / scale, scale);
+    new CellDownsampler(scale, new MaterialHistogram(CellDownsamplerBenchmark.MATERIAL_COUNT))
+        .downsample(surface, cells, 0, 0, 0, 0, cells.getWidth(), cells.getDepth());
+
+    SplittableRandom random = new SplittableRandom(7L);
+    byte[] categories = new byte[CellDownsamplerBenchmark.MATERIAL_COUNT];
+    Arrays.fill(categories, (byte) MaterialCategoryTable.NONE);
+    int[] categoryMaterials = new int[5];
+    for (int category = 0; category < categoryMaterials.length; category++) {
+      categoryMaterials[category] = random.nextInt(CellDownsamplerBenchmark.MATERIAL_COUNT);
+      for (int i = 0; i < 20; i++) {
+        categories[random.nextInt(categories.length)] = (byte) category;
+      }
+    }
+    mapping = new MaterialMapping(new MaterialCategoryTable(categories), categoryMaterials);
+    placed = new int[cells.getWidth() * cells.getDepth()];
+  }
+
+  /**
+   * Resolves the block placed for every cell of the grid.
+   *
+   * @return The material ordinal placed for every cell.
+   */
+  @Benchmark
+  public int[] mapCells() {
+    int index = 0;
+    for (int cellX = 0; cellX < cells.getWidth(); cellX++) {
+      for (int cellZ = 0; cellZ < cells.getDepth(); cellZ++) {
+        placed[index++] = mapping.map(cells.get(cellX, cellZ));
+      }
+    }
+    return placed;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package dev.lesroseaux.geocraft.models.score;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of the scoring of the guesses of a round, for lobbies of a few to hundreds of
+ * players guessing on a map of a large city.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoreKernelBenchmark {
+  /**
+   * Number of blocks per side of the map.
+   */
+  static final int MAP_SIZE = 4096;
+
+  @Param({"16", "256", "1024"})
+  private int playerCount;
+
+  private double[] guesses;
+  private ScoreKernel kernel;
+
+  /**
+   * Generates random guesses and goals inside the map.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42L);
+    guesses = new double[playerCount * 4];
+    for (int i = 0; i < guesses.length; i++) {
+      guesses[i] = random.nextDouble(MAP_SIZE);
+    }
+    kernel = new ScoreKernel(MAP_SIZE, MAP_SIZE);
+  }
+
+  /**
+   * Adds the guesses of every player and scores them.
+   *
+   * @return The scores.
+   */
+  @Benchmark
+  public int[] scoreRound() {
+    kernel.clear();
+    for (int i = 0; i < guesses.length; i += 4) {
+      kernel.add(guesses[i], guesses[i + 1], guesses[i + 2], guesses[i + 3]);
+    }
+    return kernel.computeScores();
+  }
+}
\ No newline at end of file
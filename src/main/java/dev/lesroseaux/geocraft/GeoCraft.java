@@ -1,20 +1,27 @@
 package dev.lesroseaux.geocraft;
 
 import com.destroystokyo.paper.ParticleBuilder;
+import dev.lesroseaux.geocraft.controllers.MapBuilder;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftCreate;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftGuess;
+import dev.lesroseaux.geocraft.controllers.commands.GeocraftImport;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftJoin;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftMap;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftReloadDb;
 import dev.lesroseaux.geocraft.controllers.commands.GeocraftStart;
+import dev.lesroseaux.geocraft.controllers.map.GuessMapCache;
+import dev.lesroseaux.geocraft.controllers.map.MapEditTracker;
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
 import dev.lesroseaux.geocraft.data.DatabaseOptions;
 import dev.lesroseaux.geocraft.data.connection.DatabaseConnection;
+import dev.lesroseaux.geocraft.models.game.GameRegistry;
 import dev.lesroseaux.geocraft.models.game.GuessChecker;
 import dev.lesroseaux.geocraft.models.game.MapMaterials;
 import dev.lesroseaux.geocraft.models.location.City;
 import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.plugin.lifecycle.event.LifecycleEventManager;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import net.kyori.adventure.text.Component;
@@ -51,15 +58,26 @@ public class GeoCraft extends JavaPlugin implements Listener {
     FileConfiguration config = getConfig();
 
     DatabaseOptions databaseOptions = DatabaseOptions.loadFromConfig(getConfig());
+    AsyncDatabase.start(this, databaseOptions.getPoolSize());
     DatabaseConnection.getInstance(Optional.of(databaseOptions));
 
     Bukkit.getPluginManager().registerEvents(this, this);
     Bukkit.getPluginManager().registerEvents(new GuessChecker(), this);
+    Bukkit.getPluginManager().registerEvents(GameRegistry.getInstance(), this);
+    MapEditTracker mapEditTracker = MapEditTracker.getInstance();
+    new GuessMapCache(this).open(mapEditTracker);
+    Bukkit.getPluginManager().registerEvents(mapEditTracker, this);
+    long updateInterval = config.getLong("mapBuilder.updateInterval");
+    if (updateInterval > 0) {
+      mapEditTracker.scheduleUpdates(this, updateInterval * 20);
+    }
     LifecycleEventManager<Plugin> manager = this.getLifecycleManager();
     manager.registerEventHandler(LifecycleEvents.COMMANDS, event -> {
       final Commands commands = event.registrar();
       commands.register("geocraft-create", "Create a playable zone", new GeocraftCreate(this));
       commands.register("geocraft-guess", "Guess the location", new GeocraftGuess());
+      commands.register("geocraft-import", "Import playable zones from a CSV file",
+          new GeocraftImport(this));
       commands.register("geocraft-join", "Join the game", new GeocraftJoin());
       commands.register("geocraft-map", "Create a map of the playable zone", new GeocraftMap(this));
       commands.register("geocraft-reloaddb", "Reload the database", new GeocraftReloadDb(this));
@@ -69,20 +87,45 @@ public class GeoCraft extends JavaPlugin implements Listener {
     this.getLogger().info("Size required :" + City.class);
   }
 
+  /**
+   * Called when the plugin is disabled.
+   * Drops the cached guess maps edited since they were sampled, as the edits are not kept,
+   * and stops the map sampling and database threads.
+   */
+  @Override
+  public void onDisable() {
+    new GuessMapCache(this).close(MapEditTracker.getInstance());
+    MapBuilder.shutdownSamplingPool();
+    AsyncDatabase.shutdown();
+    DatabaseConnection.shutdown();
+  }
+
   /**
    * Sets the default configuration values.
    */
   private void setConfig() {
     FileConfiguration config = getConfig();
+    config.addDefault("database.type", "mysql");
+    config.addDefault("database.file", "plugins/GeoCraft/geocraft.db");
     config.addDefault("database.host", "localhost");
     config.addDefault("database.port", 3306);
     config.addDefault("database.database", "geocraft");
     config.addDefault("database.username", "geocraft");
     config.addDefault("database.password", "password");
+    config.addDefault("database.poolSize", 10);
+    config.addDefault("database.leakDetectionThreshold", 10000);
+    config.addDefault("database.statementCacheSize", 64);
     config.addDefault("mapLocation.x", 0);
     config.addDefault("mapLocation.y", 255);
     config.addDefault("mapLocation.z", 0);
+    config.addDefault("games.slotSpacing", 512);
+    config.addDefault("games.spawnSpacing", 0);
+    config.addDefault("games.spawnExclusions", List.of());
     config.addDefault("tools.selection", Material.PAPER.name());
+    config.addDefault("mapBuilder.chunkBatchSize", 64);
+    config.addDefault("mapBuilder.tickBudget", 5);
+    config.addDefault("mapBuilder.updateInterval", 0);
+    config.addDefault("mapBuilder.parallelism", 0);
     MapMaterials.saveDefaultMaterials(this);
     config.options().copyDefaults(true);
     saveResource("config.yml", false);
@@ -1,20 +1,33 @@
 package dev.lesroseaux.geocraft.controllers;
 
+import dev.lesroseaux.geocraft.controllers.map.BlockPlacementQueue;
+import dev.lesroseaux.geocraft.controllers.map.CellGrid;
+import dev.lesroseaux.geocraft.controllers.map.CellPyramid;
+import dev.lesroseaux.geocraft.controllers.map.ChunkSnapshotSampler;
+import dev.lesroseaux.geocraft.controllers.map.GuessMapCache;
+import dev.lesroseaux.geocraft.controllers.map.GuessMapFootprint;
+import dev.lesroseaux.geocraft.controllers.map.MapEditTracker;
+import dev.lesroseaux.geocraft.controllers.map.MaterialCategoryTable;
+import dev.lesroseaux.geocraft.controllers.map.MaterialMapping;
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
 import dev.lesroseaux.geocraft.models.game.GeocraftMap;
+import dev.lesroseaux.geocraft.models.game.MaterialCategory;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
 import dev.lesroseaux.geocraft.models.location.Road;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.BitSet;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.IntStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
@@ -27,11 +40,21 @@ import org.jetbrains.annotations.NotNull;
  * Class responsible for building the map in GeoCraft.
  */
 public class MapBuilder {
+  private static ForkJoinPool samplingPool;
+
   private final GeocraftMap geocraftMap;
   private final Location start;
   private final Plugin plugin;
   private final Runnable callback;
   private final BossBar bossBar;
+  private final GuessMapCache cache;
+  private final MapEditTracker tracker;
+  private MaterialMapping materialMapping;
+  private CellPyramid pyramid;
+  private GuessMapFootprint footprint;
+  private CompletableFuture<Void> update = CompletableFuture.completedFuture(null);
+  private final BitSet pendingCells = new BitSet();
+  private final Consumer<BitSet> updater = this::update;
 
   /**
    * Constructor for MapBuilder.
@@ -47,23 +70,50 @@ public class MapBuilder {
     this.plugin = plugin;
     this.callback = callback;
     this.bossBar = Bukkit.createBossBar("Building Map", BarColor.BLUE, BarStyle.SOLID);
+    this.cache = new GuessMapCache(plugin);
+    this.tracker = MapEditTracker.getInstance();
   }
 
   /**
    * Initiates the map building process.
+   * The cell grid is read from the cache when the map did not change since it was last sampled,
+   * and only the cells edited since then are sampled again.
+   * The callback runs on the main thread once every block is placed.
    */
   public void build() {
+    build(true);
+  }
+
+  /**
+   * Initiates the map building process.
+   * The terrain is sampled from chunk snapshots, then the cells of the zoom level of the map are
+   * placed at the start location.
+   * The callback runs on the main thread once every block is placed.
+   *
+   * @param useCache Whether a cached cell grid can be used instead of sampling the terrain.
+   */
+  public void build(boolean useCache) {
     if (geocraftMap.getMap() == null) {
       throw new RuntimeException("Map is null");
     }
     World world = getWorld();
+    loadCategories();
     plugin.getServer().getConsoleSender().sendMessage("Building map... This may take a while.");
     bossBar.setVisible(true);
     Bukkit.getOnlinePlayers().forEach(bossBar::addPlayer);
-    CompletableFuture.runAsync(() -> processAndPlaceBlocks(world))
+    CompletableFuture.supplyAsync(() -> useCache ? cache.load(geocraftMap, world, start) : null)
+      .thenCompose(cached -> cached != null ? resampleEdits(world, cached) : sampleTerrain(world))
+      .thenCompose(sampled -> {
+        pyramid = new CellPyramid(sampled);
+        geocraftMap.setZoomLevel(Math.min(geocraftMap.getZoomLevel(), pyramid.getLevelCount() - 1));
+        return placeBlocks(world, pyramid.getLevel(geocraftMap.getZoomLevel()), null);
+      })
       .thenRun(() -> {
+        tracker.addUpdater(geocraftMap.getId(), updater);
         bossBar.setVisible(false);
-        callback.run();
+        if (callback != null) {
+          callback.run();
+        }
       })
       .exceptionally(ex -> {
         plugin.getServer().getConsoleSender().sendMessage("Error while building map: " + ex.getMessage());
@@ -72,6 +122,121 @@ public class MapBuilder {
       });
   }
 
+  /**
+   * Samples the terrain of the map and stores the result in the cache.
+   *
+   * @param world The world of the map.
+   * @return A future completed with the sampled cell grid.
+   */
+  private CompletableFuture<CellGrid> sampleTerrain(World world) {
+    Executor mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+    return CompletableFuture.supplyAsync(() -> {
+          tracker.track(geocraftMap, world);
+          ChunkSnapshotSampler sampler = createSampler(world, bossBar::setProgress);
+          return sampler.sample().thenApply(sampled -> {
+            cache.save(geocraftMap, world, start, sampled);
+            return sampled;
+          });
+        }, mainThread)
+      .thenCompose(sampling -> sampling);
+  }
+
+  /**
+   * Samples again the cells of a cached grid edited since it was sampled, and stores the
+   * result in the cache.
+   *
+   * @param world  The world of the map.
+   * @param cached The cached cell grid.
+   * @return A future completed with the updated cell grid.
+   */
+  private CompletableFuture<CellGrid> resampleEdits(World world, CellGrid cached) {
+    Executor mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+    return CompletableFuture.supplyAsync(() -> {
+          BitSet dirtyCells = tracker.takeDirtyCells(geocraftMap.getId());
+          if (dirtyCells == null) {
+            tracker.track(geocraftMap, world);
+            return CompletableFuture.completedFuture(cached);
+          }
+          if (dirtyCells.isEmpty()) {
+            return CompletableFuture.completedFuture(cached);
+          }
+          plugin.getLogger().info("Sampling " + dirtyCells.cardinality() + " edited cells of the map.");
+          ChunkSnapshotSampler sampler = createSampler(world, bossBar::setProgress);
+          return sampler.resample(dirtyCells, cached).thenApply(sampled -> {
+            cache.save(geocraftMap, world, start, sampled);
+            return sampled;
+          });
+        }, mainThread)
+      .thenCompose(sampling -> sampling);
+  }
+
+  /**
+   * Samples again cells edited since the guess map was built and places them.
+   * The cells edited while a previous update is still running are updated once it is done.
+   * Must be called from the main thread.
+   *
+   * @param dirtyCells The edited cells.
+   */
+  public void update(BitSet dirtyCells) {
+    pendingCells.or(dirtyCells);
+    if (pyramid == null || !update.isDone() || pendingCells.isEmpty()) {
+      return;
+    }
+    World world = getWorld();
+    BitSet cells = (BitSet) pendingCells.clone();
+    pendingCells.clear();
+    ChunkSnapshotSampler sampler = createSampler(world, ignored -> { });
+    int zoomLevel = geocraftMap.getZoomLevel();
+    update = sampler.resample(cells, pyramid.getBase())
+      .thenCompose(sampled -> {
+        cache.save(geocraftMap, world, start, sampled);
+        return placeBlocks(world, pyramid.getLevel(zoomLevel), pyramid.refresh(cells, zoomLevel));
+      })
+      .exceptionally(ex -> {
+        plugin.getLogger().warning("Error while updating map: " + ex.getMessage());
+        cache.invalidate(geocraftMap);
+        return null;
+      })
+      .thenRun(() -> Bukkit.getScheduler().runTask(plugin, () -> update(new BitSet())));
+  }
+
+  /**
+   * Creates a sampler of the map with the settings of the configuration.
+   *
+   * @param world    The world of the map.
+   * @param progress The consumer notified of the sampling progress.
+   * @return The sampler.
+   */
+  private ChunkSnapshotSampler createSampler(World world, DoubleConsumer progress) {
+    int batchSize = plugin.getConfig().getInt("mapBuilder.chunkBatchSize", 64);
+    return new ChunkSnapshotSampler(world, geocraftMap, start, batchSize, getSamplingPool(plugin), progress);
+  }
+
+  /**
+   * Gets the pool sampling the terrain, created on first use with the parallelism of the
+   * configuration.
+   *
+   * @param plugin The plugin instance.
+   * @return The sampling pool.
+   */
+  private static synchronized ForkJoinPool getSamplingPool(Plugin plugin) {
+    if (samplingPool == null) {
+      int parallelism = plugin.getConfig().getInt("mapBuilder.parallelism", 0);
+      samplingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    return samplingPool;
+  }
+
+  /**
+   * Stops the pool sampling the terrain.
+   */
+  public static synchronized void shutdownSamplingPool() {
+    if (samplingPool != null) {
+      samplingPool.shutdownNow();
+      samplingPool = null;
+    }
+  }
+
   /**
    * Loads the configuration file.
    *
@@ -86,101 +251,77 @@ public class MapBuilder {
   }
 
   /**
-   * Processes and places blocks in the world based on the map configuration.
+   * Places one block per cell of the sampled grid at the start location.
+   * The blocks are queued by chunk and placed within the per-tick budget of the configuration.
    *
-   * @param world The world where the map is being built.
+   * @param world    The world where the map is being built.
+   * @param cells    The dominant material of every cell.
+   * @param selected The cells to place, or null to place every cell.
+   * @return A future completed once every block is placed.
    */
-  private void processAndPlaceBlocks(World world) {
-    int newX = this.start.getBlockX();
-    int newZ = this.start.getBlockZ();
-    int scale = geocraftMap.getScale();
-    int totalBlocks = (geocraftMap.getMaxX() - geocraftMap.getMinX()) * (geocraftMap.getMaxZ() - geocraftMap.getMinZ());
-    int processedBlocks = 0;
-
-    for (int x = geocraftMap.getMinX(); x < geocraftMap.getMaxX(); x += scale) {
-      for (int z = geocraftMap.getMinZ(); z < geocraftMap.getMaxZ(); z += scale) {
-        HashMap<Material, Integer> blockCount = new HashMap<>();
-        int finalX = x;
-        int finalZ = z;
-        IntStream.range(0, scale).parallel().forEach(xx -> {
-          IntStream.range(0, scale).parallel().forEach(zz -> {
-            int y;
-            if (this.start.getX() < geocraftMap.getMaxX() && this.start.getX() > geocraftMap.getMinX()
-                && this.start.getZ() < geocraftMap.getMaxZ() && this.start.getZ() > geocraftMap.getMinZ()) {
-              y = this.start.getBlockY() - 1;
-              while (world.getBlockAt(finalX + xx, y, finalZ + zz).getType() == Material.AIR) {
-                y--;
-              }
-            } else {
-              y = world.getHighestBlockYAt(finalX + xx, finalZ + zz);
-            }
-
-            Block block = world.getBlockAt(finalX + xx, y, finalZ + zz);
-            Material material = block.getType();
-            synchronized (blockCount) {
-              blockCount.put(material, blockCount.getOrDefault(material, 0) + 1);
-            }
-          });
-        });
-        Material mostFrequentBlock = getMostFrequentBlock(blockCount);
-        Location location = new Location(world, newX, start.getBlockY(), newZ);
-        newZ++;
-        world.getChunkAtAsync(location).thenAccept(chunk -> {
-          Bukkit.getScheduler().runTask(plugin, () -> {
-            Block block = world.getBlockAt(location);
-            block.setType(getMaterialForBlock(mostFrequentBlock));
-          });
-        });
-
-        processedBlocks += scale * scale;
-        double progress = (double) processedBlocks / totalBlocks;
-        bossBar.setProgress(progress);
+  private CompletableFuture<Void> placeBlocks(World world, CellGrid cells, BitSet selected) {
+    bossBar.setTitle("Placing Map");
+    BlockPlacementQueue queue = createQueue(world, bossBar::setProgress);
+    if (selected == null || footprint == null) {
+      footprint = new GuessMapFootprint(start.getBlockX(), start.getBlockY(), start.getBlockZ(),
+          cells.getWidth(), cells.getDepth());
+    }
+    Material[] materials = Material.values();
+    for (int cellX = 0; cellX < cells.getWidth(); cellX++) {
+      for (int cellZ = 0; cellZ < cells.getDepth(); cellZ++) {
+        if (selected != null && !selected.get(cellX * cells.getDepth() + cellZ)) {
+          continue;
+        }
+        queue.add(start.getBlockX() + cellX, start.getBlockY(), start.getBlockZ() + cellZ,
+            getMaterialForBlock(materials, cells.get(cellX, cellZ)));
+        footprint.mark(cellX, cellZ);
       }
-      newX++;
-      newZ = this.start.getBlockZ();
     }
-    plugin.getServer().getConsoleSender().sendMessage("Map built.");
+    return queue.start().thenRun(() ->
+        plugin.getServer().getConsoleSender().sendMessage("Map built."));
   }
 
   /**
-   * Determines the material to use for a block based on the most frequent block material.
+   * Creates a block placement queue with the tick budget of the configuration.
    *
-   * @param mostFrequentBlock The most frequent block material.
-   * @return The material to use for the block.
+   * @param world    The world where the blocks are placed.
+   * @param progress The consumer notified of the placement progress.
+   * @return The block placement queue.
    */
-  private Material getMaterialForBlock(Material mostFrequentBlock) {
-    if (isMaterialInList(mostFrequentBlock, "materials.grass")) {
-      return geocraftMap.getGrassMaterial();
-    } else if (isMaterialInList(mostFrequentBlock, "materials.water")) {
-      return geocraftMap.getWaterMaterial();
-    } else if (isMaterialInList(mostFrequentBlock, "materials.building")) {
-      return geocraftMap.getBuildingMaterial();
-    } else if (isMaterialInList(mostFrequentBlock, "materials.road")) {
-      return geocraftMap.getRoadMaterial();
-    } else if (isMaterialInList(mostFrequentBlock, "materials.sand")) {
-      return geocraftMap.getSandMaterial();
-    } else {
-      return mostFrequentBlock;
+  private BlockPlacementQueue createQueue(World world, DoubleConsumer progress) {
+    long tickBudget = TimeUnit.MILLISECONDS.toNanos(plugin.getConfig().getLong("mapBuilder.tickBudget", 5));
+    return new BlockPlacementQueue(plugin, world, tickBudget, progress);
+  }
+
+  /**
+   * Compiles the material lists of the configuration for the current build.
+   */
+  private void loadCategories() {
+    MaterialCategory[] categories = MaterialCategory.values();
+    int[] categoryMaterials = new int[categories.length];
+    for (MaterialCategory category : categories) {
+      categoryMaterials[category.ordinal()] = category.getMapMaterial(geocraftMap).ordinal();
     }
+    materialMapping = new MaterialMapping(MaterialCategoryTable.fromConfig(loadConfig()),
+        categoryMaterials);
   }
 
   /**
-   * Checks if a material is in a specified list in the configuration.
+   * Determines the material to use for a block based on the most frequent block material.
    *
-   * @param material The material to check.
-   * @param path The path to the list in the configuration.
-   * @return True if the material is in the list, false otherwise.
+   * @param materials         The materials, indexed by ordinal.
+   * @param mostFrequentBlock The ordinal of the most frequent block material.
+   * @return The material to use for the block.
    */
-  private boolean isMaterialInList(Material material, String path) {
-    FileConfiguration config = loadConfig();
-    List<String> materials = config.getStringList(path);
-    return materials.contains(material.name());
+  private Material getMaterialForBlock(Material[] materials, int mostFrequentBlock) {
+    return materials[materialMapping.map(mostFrequentBlock)];
   }
 
   /**
    * Retrieves the world associated with the map.
    *
    * @return The world associated with the map.
+   * @throws IllegalStateException If the locations are not loaded from the database yet.
    */
   private @NotNull World getWorld() {
     World world = null;
@@ -188,6 +329,10 @@ public class MapBuilder {
       PlayableZone mapZone = this.geocraftMap.getMap();
       world = ((GeoCraftWorld) mapZone).getWorld();
     } else {
+      if (!LocationHierarchyCache.getInstance().isLoaded()) {
+        throw new IllegalStateException(
+            "The locations are still being loaded from the database, try again in a moment.");
+      }
       ArrayList<Road> roads = geocraftMap.getMap().getZones();
       if (roads != null && !roads.isEmpty()) {
         world = roads.getFirst().getZonePoint1().getWorld();
@@ -199,19 +344,6 @@ public class MapBuilder {
     return world;
   }
 
-  /**
-   * Determines the most frequent block material in a given block count map.
-   *
-   * @param blockCount The map of block materials and their counts.
-   * @return The most frequent block material.
-   */
-  private Material getMostFrequentBlock(HashMap<Material, Integer> blockCount) {
-    return blockCount.entrySet().stream()
-      .max(java.util.Map.Entry.comparingByValue())
-      .map(HashMap.Entry::getKey)
-      .orElse(Material.PINK_CONCRETE);
-  }
-
   /**
    * Retrieves the center location of the guess map.
    *
@@ -220,31 +352,35 @@ public class MapBuilder {
   public Location getCenterOfGuessMap() {
     double x_map_length = geocraftMap.getMaxX() - geocraftMap.getMinX();
     double z_map_length = geocraftMap.getMaxZ() - geocraftMap.getMinZ();
-    double x = this.start.getX() + (x_map_length / this.geocraftMap.getScale()) / 2;
-    double z = this.start.getZ() + (z_map_length / this.geocraftMap.getScale()) / 2;
+    double x = this.start.getX() + (x_map_length / this.geocraftMap.getRenderScale()) / 2;
+    double z = this.start.getZ() + (z_map_length / this.geocraftMap.getRenderScale()) / 2;
     return new Location(getWorld(), x, start.getBlockY() + 1, z);
   }
 
   /**
-   * Removes the map by setting all blocks to air.
+   * Removes the map by setting back to air every block placed to build it.
+   * The blocks are cleared chunk by chunk within the per-tick budget of the configuration,
+   * once any running update of the map is done.
+   *
+   * @return A future completed once every block is removed.
    */
-  public void removeMap() {
+  public CompletableFuture<Void> removeMap() {
+    tracker.removeUpdater(geocraftMap.getId(), updater);
+    pendingCells.clear();
     World world = getWorld();
-    double x_map_length = (double) (geocraftMap.getMaxX() - geocraftMap.getMinX()) / geocraftMap.getScale();
-    double z_map_length = (double) (geocraftMap.getMaxZ() - geocraftMap.getMinZ()) / geocraftMap.getScale();
-    for (int x = geocraftMap.getMinX(); x < x_map_length; x++) {
-      for (int z = geocraftMap.getMinZ(); z < z_map_length; z++) {
-        Location location = new Location(world, x, start.getBlockY(), z);
-        world.getChunkAtAsync(location).thenAccept(chunk -> {
-          Bukkit.getScheduler().runTask(plugin, () -> {
-            Block block = world.getBlockAt(location);
-            block.setType(Material.AIR);
-          });
-        });
+    return update.thenCompose(ignored -> {
+      if (footprint == null) {
+        return CompletableFuture.completedFuture(null);
       }
-    }
+      plugin.getLogger().info("Removing " + footprint.size() + " blocks of the guess map.");
+      BlockPlacementQueue queue = createQueue(world, progress -> { });
+      footprint.clear(queue);
+      footprint = null;
+      return queue.start();
+    });
   }
 
+
   /**
    * Retrieves the starting location for building the map.
    *
@@ -0,0 +1,248 @@
+package dev.lesroseaux.geocraft.controllers;
+
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.DatabaseConnection;
+import dev.lesroseaux.geocraft.data.dao.CityDao;
+import dev.lesroseaux.geocraft.data.dao.DistrictDao;
+import dev.lesroseaux.geocraft.data.dao.RegionDao;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
+import dev.lesroseaux.geocraft.data.dao.WorldDao;
+import dev.lesroseaux.geocraft.models.location.City;
+import dev.lesroseaux.geocraft.models.location.District;
+import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
+import dev.lesroseaux.geocraft.models.location.Region;
+import dev.lesroseaux.geocraft.models.location.Road;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Imports playable zones in bulk from CSV lines.
+ * Every line describes a road and the zones containing it:
+ * {@code region,city,district,road,x1,y1,z1,x2,y2,z2}. Empty lines and lines starting with
+ * {@code #} are ignored. The regions, cities and districts that do not exist yet in their parent
+ * are created, and every level is inserted with a single batched statement.
+ */
+public class ZoneImporter {
+  private static final int COLUMN_COUNT = 10;
+
+  private final World world;
+  private int regionCount;
+  private int cityCount;
+  private int districtCount;
+  private int roadCount;
+
+  /**
+   * Constructs a ZoneImporter.
+   *
+   * @param world The world of the imported zones.
+   */
+  public ZoneImporter(World world) {
+    this.world = world;
+  }
+
+  /**
+   * Imports the zones described by CSV lines.
+   * Every line is parsed before anything is inserted, and the zones are inserted in a single
+   * transaction, so a malformed file or a failed insert inserts nothing.
+   *
+   * @param lines The CSV lines.
+   * @throws IllegalArgumentException If a line is malformed.
+   */
+  public void importLines(List<String> lines) {
+    List<String[]> rows = new ArrayList<>();
+    List<double[]> points = new ArrayList<>();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] columns = line.split(",", -1);
+      if (columns.length != COLUMN_COUNT) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": expected " + COLUMN_COUNT
+            + " columns, found " + columns.length + ".");
+      }
+      double[] coordinates = new double[6];
+      for (int column = 0; column < columns.length; column++) {
+        columns[column] = columns[column].trim();
+        if (column < 4 && columns[column].isEmpty()) {
+          throw new IllegalArgumentException("Line " + (i + 1) + ": empty zone name.");
+        }
+        if (column >= 4) {
+          try {
+            coordinates[column - 4] = Double.parseDouble(columns[column]);
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + (i + 1) + ": invalid coordinate "
+                + columns[column] + ".");
+          }
+        }
+      }
+      rows.add(columns);
+      points.add(coordinates);
+    }
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    try (Connection connection = DatabaseConnection.getInstance(Optional.empty()).getConnection()) {
+      connection.setAutoCommit(false);
+      insert(rows, points);
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      // The cache was patched with the rows of the rolled back transaction.
+      LocationHierarchyCache.getInstance().invalidate();
+      throw e instanceof RuntimeException runtime ? runtime : new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Inserts the zones of parsed lines that do not exist yet.
+   * Every zone is looked up by its name among the zones of its parent only, so zones with the
+   * same name in different parents are kept apart.
+   *
+   * @param rows   The columns of every line.
+   * @param points The coordinates of the road of every line.
+   */
+  private void insert(List<String[]> rows, List<double[]> points) {
+    WorldDao worldDao = new WorldDao();
+    if (worldDao.getByUuid(world.getUID()) == null) {
+      worldDao.insert(new GeoCraftWorld(world));
+    }
+
+    RegionDao regionDao = new RegionDao();
+    Map<String, Region> regions = new LinkedHashMap<>();
+    List<Region> newRegions = new ArrayList<>();
+    for (String[] row : rows) {
+      regions.computeIfAbsent(key(row[0]), regionKey -> {
+        Region region = findByName(regionDao.getAllRegionsByWorldId(world.getUID()),
+            Region::getRegionName, row[0]);
+        if (region == null) {
+          region = new Region(row[0], world.getUID());
+          newRegions.add(region);
+        }
+        return region;
+      });
+    }
+    regionDao.insertAll(newRegions);
+    regionCount = newRegions.size();
+
+    CityDao cityDao = new CityDao();
+    Map<String, City> cities = new LinkedHashMap<>();
+    List<City> newCities = new ArrayList<>();
+    for (String[] row : rows) {
+      cities.computeIfAbsent(key(row[0], row[1]), cityKey -> {
+        int regionId = regions.get(key(row[0])).getRegionId();
+        City city = findByName(cityDao.getAllCitiesByRegionId(regionId), City::getCityName, row[1]);
+        if (city == null) {
+          city = new City(row[1], regionId);
+          newCities.add(city);
+        }
+        return city;
+      });
+    }
+    cityDao.insertAll(newCities);
+    cityCount = newCities.size();
+
+    DistrictDao districtDao = new DistrictDao();
+    Map<String, District> districts = new LinkedHashMap<>();
+    List<District> newDistricts = new ArrayList<>();
+    for (String[] row : rows) {
+      districts.computeIfAbsent(key(row[0], row[1], row[2]), districtKey -> {
+        int cityId = cities.get(key(row[0], row[1])).getCityId();
+        District district = findByName(districtDao.getAllDistrictsByCityId(cityId),
+            District::getDistrictName, row[2]);
+        if (district == null) {
+          district = new District(0, row[2], cityId);
+          newDistricts.add(district);
+        }
+        return district;
+      });
+    }
+    districtDao.insertAll(newDistricts);
+    districtCount = newDistricts.size();
+
+    List<Road> roads = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      String[] row = rows.get(i);
+      double[] coordinates = points.get(i);
+      roads.add(new Road(new Location(world, coordinates[0], coordinates[1], coordinates[2]),
+          new Location(world, coordinates[3], coordinates[4], coordinates[5]), row[3],
+          districts.get(key(row[0], row[1], row[2])).getDistrictId()));
+    }
+    new RoadDao().insertAll(roads);
+    roadCount = roads.size();
+  }
+
+  /**
+   * Gets the number of regions created by the last import.
+   *
+   * @return The number of regions.
+   */
+  public int getRegionCount() {
+    return regionCount;
+  }
+
+  /**
+   * Gets the number of cities created by the last import.
+   *
+   * @return The number of cities.
+   */
+  public int getCityCount() {
+    return cityCount;
+  }
+
+  /**
+   * Gets the number of districts created by the last import.
+   *
+   * @return The number of districts.
+   */
+  public int getDistrictCount() {
+    return districtCount;
+  }
+
+  /**
+   * Gets the number of roads created by the last import.
+   *
+   * @return The number of roads.
+   */
+  public int getRoadCount() {
+    return roadCount;
+  }
+
+  /**
+   * Finds a zone by its name, ignoring case.
+   *
+   * @param zones  The zones of a parent.
+   * @param nameOf The function giving the name of a zone.
+   * @param name   The name.
+   * @param <T>    The type of the zones.
+   * @return The zone, or null if not found.
+   */
+  private static <T> T findByName(List<T> zones, Function<T, String> nameOf, String name) {
+    for (T zone : zones) {
+      if (name.equalsIgnoreCase(nameOf.apply(zone))) {
+        return zone;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the key of a zone from its name and the names of its parents, zone names being compared
+   * ignoring case.
+   *
+   * @param names The names of the parents of the zone, outermost first, then its name.
+   * @return The key.
+   */
+  private static String key(String... names) {
+    return String.join("\n", names).toLowerCase(Locale.ROOT);
+  }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
 import dev.lesroseaux.geocraft.GeoCraft;
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
 import dev.lesroseaux.geocraft.data.dao.CityDao;
 import dev.lesroseaux.geocraft.data.dao.DistrictDao;
 import dev.lesroseaux.geocraft.data.dao.RegionDao;
@@ -16,7 +18,9 @@ import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -39,6 +43,7 @@ public class GeocraftCreate implements BasicCommand {
 
   /**
    * Executes the command based on the provided arguments.
+   * The zones are looked up and inserted off the main thread.
    *
    * @param commandSourceStack The source of the command.
    * @param strings The command arguments.
@@ -46,66 +51,89 @@ public class GeocraftCreate implements BasicCommand {
   @Override
   public void execute(@NotNull CommandSourceStack commandSourceStack, @NotNull String[] strings) {
     Player sender = (Player) commandSourceStack.getSender();
+    AsyncDatabase database = AsyncDatabase.getInstance();
+    CompletableFuture<Component> result;
     switch (strings[0]) {
       case "region" -> {
         if (strings.length > 1) {
-          // Check if the world is already in the database
-          if (new WorldDao().getByUuid(sender.getWorld().getUID()) == null) {
-            new WorldDao().insert(new GeoCraftWorld(sender.getWorld()));
-          }
-          new RegionDao().insert(
-              new Region(strings[1], sender.getWorld().getUID()));
-          sender.sendMessage(Component.text("Region created."));
+          GeoCraftWorld world = new GeoCraftWorld(sender.getWorld());
+          result = database.supply(() -> {
+            // Check if the world is already in the database
+            if (new WorldDao().getByUuid(world.getWorldId()) == null) {
+              new WorldDao().insert(world);
+            }
+            new RegionDao().insert(new Region(strings[1], world.getWorldId()));
+            return Component.text("Region created.");
+          });
         } else {
           sender.sendMessage(Component.text("You must specify a region name."));
+          return;
         }
       }
       case "city" -> {
         if (strings.length > 2) {
-          Region region = new RegionDao().getRegionByName(strings[2]);
-          if (region == null) {
-            sender.sendMessage(Component.text("Region " + strings[2] + " not found."));
-            return;
-          }
-          new CityDao().insert(new City(strings[1], region.getRegionId()));
-          sender.sendMessage(Component.text("City created."));
+          result = database.supply(() -> {
+            Region region = new RegionDao().getRegionByName(strings[2]);
+            if (region == null) {
+              return Component.text("Region " + strings[2] + " not found.");
+            }
+            new CityDao().insert(new City(strings[1], region.getRegionId()));
+            return Component.text("City created.");
+          });
         } else {
           sender.sendMessage(Component.text("You must specify a city name and a region name."));
+          return;
         }
       }
       case "district" -> {
         if (strings.length > 2) {
-          City city = new CityDao().getCityByName(strings[2]);
-          if (city != null) {
+          result = database.supply(() -> {
+            City city = new CityDao().getCityByName(strings[2]);
+            if (city == null) {
+              return Component.text("City " + strings[2] + " not found.");
+            }
             new DistrictDao().insert(new District(0, strings[1], city.getCityId()));
-            sender.sendMessage(Component.text("District created."));
-          } else {
-            sender.sendMessage(Component.text("City " + strings[2] + " + not found."));
-          }
+            return Component.text("District created.");
+          });
         } else {
           sender.sendMessage(
               Component.text("You must specify a city name and a district name."));
+          return;
         }
       }
       case "road" -> {
         // /geocraft create road <name> <district>
         if (plugin.getTempPoint1() != null && plugin.getTempPoint2() != null
-            && strings.length > 1) {
-          District district = new DistrictDao().getDistrictByName(strings[2]);
-          new RoadDao().insert(
-              new Road(plugin.getTempPoint1(), plugin.getTempPoint2(), strings[1],
-                  district.getDistrictId()));
-          sender.sendMessage(Component.text("Zone created."));
+            && strings.length > 2) {
+          Location point1 = plugin.getTempPoint1().clone();
+          Location point2 = plugin.getTempPoint2().clone();
+          result = database.supply(() -> {
+            District district = new DistrictDao().getDistrictByName(strings[2]);
+            if (district == null) {
+              return Component.text("District " + strings[2] + " not found.");
+            }
+            new RoadDao().insert(new Road(point1, point2, strings[1], district.getDistrictId()));
+            return Component.text("Zone created.");
+          });
         } else if (plugin.getTempPoint1() == null || plugin.getTempPoint2() == null) {
           sender.sendMessage(
               Component.text("You must select two points first. Use a compass "
                   + "to select points."));
+          return;
         } else {
-          sender.sendMessage(Component.text("You must specify a zone name."));
+          sender.sendMessage(Component.text("You must specify a zone name and a district name."));
+          return;
         }
       }
-      default -> sender.sendMessage(Component.text("Invalid zone type."));
+      default -> {
+        sender.sendMessage(Component.text("Invalid zone type."));
+        return;
+      }
     }
+    result.thenAccept(sender::sendMessage).exceptionally(e -> {
+      database.report(sender, e);
+      return null;
+    });
   }
 
   /**
@@ -121,6 +149,10 @@ public class GeocraftCreate implements BasicCommand {
     ArrayList<String> suggests = new ArrayList<>();
     if (args.length == 0) {
       return List.of(new String[] {"region", "city", "district", "road"});
+    } else if (args.length == 3 && !LocationHierarchyCache.getInstance().isLoaded()) {
+      // The names are being loaded on a database thread, they are suggested once loaded.
+      LocationHierarchyCache.getInstance().warmUp();
+      return List.of();
     } else if (args.length == 3) {
       return switch (args[0]) {
         case "city" -> {
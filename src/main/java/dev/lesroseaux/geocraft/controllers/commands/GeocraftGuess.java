@@ -1,6 +1,7 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
 import dev.lesroseaux.geocraft.models.game.GameManager;
+import dev.lesroseaux.geocraft.models.game.GameRegistry;
 import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.util.Collection;
@@ -29,15 +30,16 @@ public class GeocraftGuess implements BasicCommand {
       case "tp":
         // Teleport to the guess location or return to the game map
         commandSourceStack.getSender().sendMessage("Teleporting to the guess location.");
-        GameManager gameManager = GameManager.getInstance();
-        if (!gameManager.isGameStarted()) {
-          commandSourceStack.getSender().sendMessage("The game is not started.");
+        if (!(commandSourceStack.getSender() instanceof Player player)) {
           return;
         }
-        if (gameManager.isPlayerInGame((Player) commandSourceStack.getSender())) {
-          gameManager.teleportPlayerToGuessMap((Player) commandSourceStack.getSender());
+        GameManager gameManager = GameRegistry.getInstance().getGame(player);
+        if (gameManager == null) {
+          player.sendMessage("You are not in a game.");
+        } else if (!gameManager.isGameStarted()) {
+          player.sendMessage("The game is not started.");
         } else {
-          commandSourceStack.getSender().sendMessage("You are not in a game.");
+          gameManager.teleportPlayerToGuessMap(player);
         }
         break;
       case "guess":
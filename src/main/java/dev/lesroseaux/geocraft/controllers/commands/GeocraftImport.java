@@ -0,0 +1,151 @@
+package dev.lesroseaux.geocraft.controllers.commands;
+
+import dev.lesroseaux.geocraft.controllers.ZoneImporter;
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
+import io.papermc.paper.command.brigadier.BasicCommand;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Command class for importing playable zones in bulk from a CSV file of the "imports" folder.
+ */
+public class GeocraftImport implements BasicCommand {
+  private final Plugin plugin;
+
+  /**
+   * Constructor for GeocraftImport.
+   *
+   * @param plugin The plugin instance.
+   */
+  public GeocraftImport(Plugin plugin) {
+    this.plugin = plugin;
+  }
+
+  /**
+   * Executes the command with the given {@link CommandSourceStack} and arguments.
+   * The file is read and imported off the main thread.
+   *
+   * @param commandSourceStack the commandSourceStack of the command
+   * @param args               the arguments of the command ignoring repeated spaces
+   */
+  @Override
+  public void execute(@NotNull CommandSourceStack commandSourceStack, @NotNull String[] args) {
+    CommandSender sender = commandSourceStack.getSender();
+    if (args.length == 0) {
+      sender.sendMessage("You must specify a file of the imports folder.");
+      return;
+    }
+    World world;
+    if (args.length > 1) {
+      world = Bukkit.getWorld(args[1]);
+    } else if (sender instanceof Player player) {
+      world = player.getWorld();
+    } else {
+      sender.sendMessage("You must specify a world.");
+      return;
+    }
+    if (world == null) {
+      sender.sendMessage("World " + args[1] + " not found.");
+      return;
+    }
+    File directory = getImportDirectory();
+    File file = new File(directory, args[0]);
+    if (!file.toPath().normalize().startsWith(directory.toPath().normalize()) || !file.isFile()) {
+      sender.sendMessage("File " + args[0] + " not found in " + directory.getPath() + ".");
+      return;
+    }
+    sender.sendMessage("Importing " + file.getName() + "...");
+    AsyncDatabase database = AsyncDatabase.getInstance();
+    database.supply(() -> {
+      ZoneImporter importer = new ZoneImporter(world);
+      try {
+        importer.importLines(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return importer;
+    }).thenAccept(importer -> sender.sendMessage("Imported " + importer.getRoadCount()
+        + " roads, " + importer.getDistrictCount() + " new districts, " + importer.getCityCount()
+        + " new cities and " + importer.getRegionCount() + " new regions.")
+    ).exceptionally(e -> {
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      if (cause instanceof UncheckedIOException || cause instanceof IllegalArgumentException) {
+        sender.sendMessage("Import failed: " + cause.getMessage());
+      } else {
+        database.report(sender, e);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Suggests the files of the imports folder, then the worlds.
+   *
+   * @param commandSourceStack the commandSourceStack of the command
+   * @param args               the arguments of the command including repeated spaces
+   * @return a collection of suggestions
+   */
+  @Override
+  public @NotNull Collection<String> suggest(@NotNull CommandSourceStack commandSourceStack,
+                                             @NotNull String[] args) {
+    List<String> suggests = new ArrayList<>();
+    if (args.length <= 1) {
+      String[] files = getImportDirectory().list((directory, name) -> name.endsWith(".csv"));
+      if (files != null) {
+        suggests.addAll(List.of(files));
+      }
+    } else if (args.length == 2) {
+      Bukkit.getWorlds().forEach(world -> suggests.add(world.getName()));
+    }
+    return suggests;
+  }
+
+  /**
+   * Gets the folder of the files to import, creating it if needed.
+   *
+   * @return The imports folder.
+   */
+  private File getImportDirectory() {
+    File directory = new File(plugin.getDataFolder(), "imports");
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      plugin.getLogger().warning("Could not create " + directory.getPath());
+    }
+    return directory;
+  }
+
+  /**
+   * Checks whether a command sender can receive and run the root command.
+   *
+   * @param sender the command sender trying to execute the command
+   * @return whether the command sender fulfills the root command requirement
+   * @see #permission()
+   */
+  @Override
+  public boolean canUse(@NotNull CommandSender sender) {
+    return BasicCommand.super.canUse(sender);
+  }
+
+  /**
+   * Returns the permission for the root command used in {@link #canUse(CommandSender)} by default.
+   *
+   * @return the permission for the root command used in {@link #canUse(CommandSender)}
+   */
+  @Override
+  public @Nullable String permission() {
+    return BasicCommand.super.permission();
+  }
+}
\ No newline at end of file
@@ -1,9 +1,13 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
 import dev.lesroseaux.geocraft.models.game.GameManager;
+import dev.lesroseaux.geocraft.models.game.GameRegistry;
 import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -16,25 +20,44 @@ public class GeocraftJoin implements BasicCommand {
 
   /**
    * Executes the command with the given {@link CommandSourceStack} and arguments.
+   * The game to join is given by the name of the player who created it, and can be omitted when
+   * a single game is waiting for players.
    *
    * @param commandSourceStack the commandSourceStack of the command
    * @param args               the arguments of the command ignoring repeated spaces
    */
   @Override
   public void execute(@NotNull CommandSourceStack commandSourceStack, @NotNull String[] args) {
-    // Update instance of the game
-    GameManager gameManager = GameManager.getInstance();
+    GameRegistry registry = GameRegistry.getInstance();
 
     if (commandSourceStack.getSender() instanceof Player player) {
-      if (!gameManager.isGameStarted()) {
-        if (gameManager.isPlayerInGame(player)) {
-          player.sendMessage("You have already joined the game.");
-        } else {
-          gameManager.addPlayer(player);
-          player.sendMessage("You joined the game.");
+      if (registry.getGame(player) != null) {
+        player.sendMessage("You have already joined a game.");
+        return;
+      }
+      GameManager gameManager;
+      if (args.length > 0) {
+        Player owner = Bukkit.getPlayerExact(args[0]);
+        gameManager = owner == null ? null : registry.getGameOwnedBy(owner.getUniqueId());
+        if (gameManager == null) {
+          player.sendMessage("No game created by " + args[0] + ".");
+          return;
         }
       } else {
+        List<GameManager> waitingGames = registry.getGames().values().stream()
+            .filter(game -> !game.isGameStarted()).toList();
+        if (waitingGames.size() != 1) {
+          player.sendMessage("You must specify the player who created the game.");
+          return;
+        }
+        gameManager = waitingGames.getFirst();
+      }
+      if (gameManager.isGameStarted()) {
         player.sendMessage("The game has already started.");
+      } else if (gameManager.isGameFull()) {
+        player.sendMessage("The game is full.");
+      } else {
+        registry.join(player, gameManager);
       }
     } else {
       commandSourceStack.getSender().sendMessage("Only players can join the game.");
@@ -42,7 +65,7 @@ public class GeocraftJoin implements BasicCommand {
   }
 
   /**
-   * Suggests possible completions for the given command {@link CommandSourceStack} and arguments.
+   * Suggests the names of the players who created a game waiting for players.
    *
    * @param commandSourceStack the commandSourceStack of the command
    * @param args               the arguments of the command including repeated spaces
@@ -51,7 +74,16 @@ public class GeocraftJoin implements BasicCommand {
   @Override
   public @NotNull Collection<String> suggest(@NotNull CommandSourceStack commandSourceStack,
                                              @NotNull String[] args) {
-    return BasicCommand.super.suggest(commandSourceStack, args);
+    List<String> suggests = new ArrayList<>();
+    if (args.length <= 1) {
+      GameRegistry.getInstance().getGames().forEach((ownerId, game) -> {
+        Player owner = Bukkit.getPlayer(ownerId);
+        if (owner != null && !game.isGameStarted()) {
+          suggests.add(owner.getName());
+        }
+      });
+    }
+    return suggests;
   }
 
   /**
@@ -1,12 +1,12 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
 import dev.lesroseaux.geocraft.controllers.MapBuilder;
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
 import dev.lesroseaux.geocraft.data.dao.CityDao;
 import dev.lesroseaux.geocraft.data.dao.DistrictDao;
 import dev.lesroseaux.geocraft.data.dao.LocationToMapDao;
 import dev.lesroseaux.geocraft.data.dao.MapDao;
 import dev.lesroseaux.geocraft.data.dao.RegionDao;
-import dev.lesroseaux.geocraft.data.dao.WorldDao;
 import dev.lesroseaux.geocraft.models.LocationToMap;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
@@ -14,7 +14,6 @@ import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -40,103 +39,115 @@ public class GeocraftMap implements BasicCommand {
 
   /**
    * Executes the command with the given {@link CommandSourceStack} and arguments.
+   * The maps are looked up and saved off the main thread, and built on the main thread.
    *
    * @param commandSourceStack the commandSourceStack of the command
    * @param args               the arguments of the command ignoring repeated spaces
    */
   @Override
   public void execute(@NotNull CommandSourceStack commandSourceStack, String[] args) {
-    CompletableFuture.runAsync(() -> {
-      Player sender = (Player) commandSourceStack.getSender();
-      if (args.length == 0) {
-        commandSourceStack.getSender().sendMessage("You must specify a subcommand.");
-      } else {
-        switch (args[0]) {
-          case "create" -> {
-            if (args.length < 5) {
-              commandSourceStack.getSender().sendMessage(
-                  "You must specify a min and max coordinates (x and z).");
-              return;
-            } else if (args.length < 6) {
-              commandSourceStack.getSender().sendMessage("You must specify a zone type.");
-              return;
-            } else if (args.length < 7) {
-              commandSourceStack.getSender().sendMessage("You must specify a zone name.");
-              return;
-            }
-            PlayableZone zone;
-            switch (args[5]) {
-              case "world" -> {
-                zone = new GeoCraftWorld(sender.getWorld());
-              }
-              case "region" -> {
-                RegionDao regionDao = new RegionDao();
-                zone = regionDao.getRegionByName(args[6]);
-                if (zone == null) {
-                  commandSourceStack.getSender().sendMessage("Region not found.");
-                  return;
-                }
-              }
-              case "city" -> {
-                zone = new CityDao().getCityByName(args[6]);
-                if (zone == null) {
-                  commandSourceStack.getSender().sendMessage("City not found.");
-                  return;
-                }
-              }
-              case "district" -> {
-                zone = new DistrictDao().getDistrictByName(args[6]);
-                if (zone == null) {
-                  commandSourceStack.getSender().sendMessage("District not found.");
-                  return;
-                }
+    Player sender = (Player) commandSourceStack.getSender();
+    AsyncDatabase database = AsyncDatabase.getInstance();
+    if (args.length == 0) {
+      sender.sendMessage("You must specify a subcommand.");
+      return;
+    }
+    switch (args[0]) {
+      case "create" -> {
+        if (args.length < 5) {
+          sender.sendMessage("You must specify a min and max coordinates (x and z).");
+          return;
+        } else if (args.length < 6) {
+          sender.sendMessage("You must specify a zone type.");
+          return;
+        } else if (args.length < 7) {
+          sender.sendMessage("You must specify a zone name.");
+          return;
+        }
+        int[] bounds = new int[5];
+        try {
+          for (int i = 0; i < 4; i++) {
+            bounds[i] = Integer.parseInt(args[i + 1]);
+          }
+          bounds[4] = args.length > 7 ? Integer.parseInt(args[7]) : 10;
+        } catch (NumberFormatException e) {
+          sender.sendMessage("Invalid coordinates.");
+          return;
+        }
+        GeoCraftWorld world = new GeoCraftWorld(sender.getWorld());
+        database.supply(() -> {
+          PlayableZone zone;
+          switch (args[5]) {
+            case "world" -> zone = world;
+            case "region" -> {
+              zone = new RegionDao().getRegionByName(args[6]);
+              if (zone == null) {
+                return "Region not found.";
               }
-              default -> {
-                commandSourceStack.getSender().sendMessage("Invalid zone type.");
-                return;
+            }
+            case "city" -> {
+              zone = new CityDao().getCityByName(args[6]);
+              if (zone == null) {
+                return "City not found.";
               }
             }
-            try {
-              MapDao mapDao = new MapDao();
-              LocationToMapDao locationToMapDao = new LocationToMapDao();
-              LocationToMap locationToMap = new LocationToMap(zone);
-              int id = locationToMapDao.insert(locationToMap);
-              locationToMap.setDatabaseId(id);
-              mapDao.insert(new dev.lesroseaux.geocraft.models.game.GeocraftMap(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
-                  Integer.parseInt(args[3]), Integer.parseInt(args[4]), 10, locationToMap));
-              commandSourceStack.getSender().sendMessage("Map created.");
-            } catch (NumberFormatException e) {
-              commandSourceStack.getSender().sendMessage("Invalid coordinates.");
+            case "district" -> {
+              zone = new DistrictDao().getDistrictByName(args[6]);
+              if (zone == null) {
+                return "District not found.";
+              }
             }
-          }
-          case "edit" -> commandSourceStack.getSender().sendMessage("Map edited.");
-          case "remove" -> commandSourceStack.getSender().sendMessage("Map removed.");
-          case "info" -> commandSourceStack.getSender().sendMessage("Map info.");
-          case "build" -> {
-            commandSourceStack.getSender().sendMessage("Building map...");
-            LocationToMap location = new LocationToMapDao().getParentMap(
-                new LocationToMap(new WorldDao().getByUuid(sender.getWorld().getUID())));
-            dev.lesroseaux.geocraft.models.game.GeocraftMap geocraftMap = new MapDao().getByLocationToMapId(location);
-            if (geocraftMap == null || geocraftMap.getMap() == null) {
-              commandSourceStack.getSender().sendMessage("Map not found.");
-              return;
+            default -> {
+              return "Invalid zone type.";
             }
-            geocraftMap.setMap(new GeoCraftWorld(sender.getWorld()));
-            FileConfiguration config = plugin.getConfig();
-            Location startLocation = new Location(sender.getWorld(),
-                config.getInt("mapLocation.x"),
-                config.getInt("mapLocation.y"),
-                config.getInt("mapLocation.z"));
-            MapBuilder mapBuilder = new MapBuilder(geocraftMap, startLocation, plugin, null);
-            mapBuilder.build();
           }
-          default -> commandSourceStack.getSender().sendMessage("Invalid subcommand.");
+          LocationToMap locationToMap = new LocationToMap(zone);
+          int id = new LocationToMapDao().insert(locationToMap);
+          locationToMap.setDatabaseId(id);
+          new MapDao().insert(new dev.lesroseaux.geocraft.models.game.GeocraftMap(bounds[0],
+              bounds[1], bounds[2], bounds[3], bounds[4], locationToMap));
+          return "Map created.";
+        }).thenAccept(sender::sendMessage).exceptionally(e -> {
+          database.report(sender, e);
+          return null;
+        });
+      }
+      case "edit" -> sender.sendMessage("Map edited.");
+      case "remove" -> sender.sendMessage("Map removed.");
+      case "info" -> sender.sendMessage("Map info.");
+      case "build" -> {
+        Integer zoom;
+        try {
+          zoom = args.length > 1 ? Integer.parseInt(args[1]) : null;
+        } catch (NumberFormatException e) {
+          sender.sendMessage("Invalid zoom level.");
+          return;
         }
+        sender.sendMessage("Building map...");
+        GeoCraftWorld world = new GeoCraftWorld(sender.getWorld());
+        database.supply(() -> new MapDao().getParentMap(world)).thenAccept(geocraftMap -> {
+          if (geocraftMap == null || geocraftMap.getMap() == null) {
+            sender.sendMessage("Map not found.");
+            return;
+          }
+          geocraftMap.setMap(world);
+          if (zoom != null) {
+            geocraftMap.setZoomLevel(zoom);
+          }
+          FileConfiguration config = plugin.getConfig();
+          Location startLocation = new Location(sender.getWorld(),
+              config.getInt("mapLocation.x"),
+              config.getInt("mapLocation.y"),
+              config.getInt("mapLocation.z"));
+          MapBuilder mapBuilder = new MapBuilder(geocraftMap, startLocation, plugin, null);
+          mapBuilder.build(false);
+        }).exceptionally(e -> {
+          database.report(sender, e);
+          return null;
+        });
       }
-    }).exceptionally(e -> {
-      commandSourceStack.getSender().sendMessage("An error occurred: " + e.getMessage());
-      return null;
-    });
+      default -> sender.sendMessage("Invalid subcommand.");
+    }
   }
 
   /**
@@ -1,6 +1,7 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
 import dev.lesroseaux.geocraft.GeoCraft;
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
 import dev.lesroseaux.geocraft.data.DatabaseOptions;
 import dev.lesroseaux.geocraft.data.connection.DatabaseConnection;
 import io.papermc.paper.command.brigadier.BasicCommand;
@@ -29,6 +30,7 @@ public class GeocraftReloadDb implements BasicCommand {
 
   /**
    * Executes the command with the given {@link CommandSourceStack} and arguments.
+   * The database is reconnected off the main thread.
    *
    * @param commandSourceStack the commandSourceStack of the command
    * @param args               the arguments of the command ignoring repeated spaces
@@ -36,16 +38,15 @@ public class GeocraftReloadDb implements BasicCommand {
   @Override
   public void execute(@NotNull CommandSourceStack commandSourceStack, @NotNull String[] args) {
     FileConfiguration config = plugin.getConfig();
-    DatabaseConnection.getInstance(
-        Optional.of(new DatabaseOptions(
-            config.getString("database.host"),
-            config.getInt("database.port"),
-            config.getString("database.database"),
-            config.getString("database.username"),
-            config.getString("database.password")
-        )));
-
-    commandSourceStack.getSender().sendMessage("Database reloaded.");
+    DatabaseOptions options = DatabaseOptions.loadFromConfig(config);
+    CommandSender sender = commandSourceStack.getSender();
+    AsyncDatabase database = AsyncDatabase.getInstance();
+    database.run(() -> DatabaseConnection.getInstance(Optional.of(options)))
+        .thenRun(() -> sender.sendMessage("Database reloaded."))
+        .exceptionally(e -> {
+          database.report(sender, e);
+          return null;
+        });
   }
 
   /**
@@ -1,12 +1,12 @@
 package dev.lesroseaux.geocraft.controllers.commands;
 
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
 import dev.lesroseaux.geocraft.data.dao.CityDao;
 import dev.lesroseaux.geocraft.data.dao.DistrictDao;
-import dev.lesroseaux.geocraft.data.dao.LocationToMapDao;
 import dev.lesroseaux.geocraft.data.dao.MapDao;
 import dev.lesroseaux.geocraft.data.dao.RegionDao;
-import dev.lesroseaux.geocraft.models.LocationToMap;
 import dev.lesroseaux.geocraft.models.game.GameManager;
+import dev.lesroseaux.geocraft.models.game.GameRegistry;
 import dev.lesroseaux.geocraft.models.game.GeocraftMap;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
@@ -14,13 +14,12 @@ import io.papermc.paper.command.brigadier.BasicCommand;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.time.Duration;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import net.kyori.adventure.text.Component;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -28,9 +27,6 @@ import org.jetbrains.annotations.Nullable;
  * Command class for handling the "start" commands in GeoCraft.
  */
 public class GeocraftStart implements BasicCommand {
-  private final HashMap<Player, Boolean> alreadyStarted;
-  private GameManager gameManager = GameManager.getInstance();
-  private final BukkitScheduler scheduler;
   private final Plugin plugin;
 
   /**
@@ -39,79 +35,134 @@ public class GeocraftStart implements BasicCommand {
    * @param plugin The plugin instance.
    */
   public GeocraftStart(@NotNull Plugin plugin) {
-    this.alreadyStarted = new HashMap<>();
     this.plugin = plugin;
-    this.scheduler = plugin.getServer().getScheduler();
   }
 
   /**
    * Executes the command with the given {@link CommandSourceStack} and arguments.
+   * With arguments, a new game owned by the player is configured. Without arguments, the game
+   * owned by the player is started. Every player can own a game, so several games run at once.
+   * The playable zone, its map and its roads are loaded off the main thread.
    *
    * @param commandSourceStack the commandSourceStack of the command
    * @param strings            the arguments of the command ignoring repeated spaces
    */
   @Override
   public void execute(@NotNull CommandSourceStack commandSourceStack, @NotNull String[] strings) {
-    Player player = (Player) commandSourceStack.getSender();
-    PlayableZone playableZone = null;
-    // Update instance of the game
-    gameManager = GameManager.getInstance();
-
-    if (!alreadyStarted.containsKey(player)) {
-      alreadyStarted.put(player, false);
+    if (!(commandSourceStack.getSender() instanceof Player player)) {
+      commandSourceStack.getSender().sendMessage("Only players can start a game.");
+      return;
     }
-    if (!alreadyStarted.get(player)) {
-      if (strings.length == 3) {
-        // /geoCraft-start <region/city/district/world> <name> <duration>
-        commandSourceStack.getSender().sendMessage("Geocraft configuration started.");
-        switch (strings[0].toLowerCase(Locale.ROOT)) {
-          case "region" -> playableZone = new RegionDao().getRegionByName(strings[1]);
-          case "city" -> playableZone = new CityDao().getCityByName(strings[1]);
-          case "district" -> playableZone = new DistrictDao().getDistrictByName(strings[1]);
-          case "world" -> playableZone = new GeoCraftWorld(player.getWorld());
-          default -> player.sendMessage("You must specify a valid type of playable area.");
+    AsyncDatabase database = AsyncDatabase.getInstance();
+    GameRegistry registry = GameRegistry.getInstance();
+
+    if (strings.length >= 3 && strings.length <= 5) {
+      // /geoCraft-start <region/city/district/world> <name> <duration> [zoom] [rounds]
+      if (registry.getGame(player) != null) {
+        player.sendMessage("You are already in a game.");
+        return;
+      }
+      String type = strings[0].toLowerCase(Locale.ROOT);
+      if (!List.of("region", "city", "district", "world").contains(type)) {
+        player.sendMessage("You must specify a valid type of playable area.");
+        return;
+      }
+      Duration duration;
+      Integer zoom;
+      int rounds;
+      try {
+        duration = Duration.ofSeconds(Long.parseLong(strings[2]));
+        zoom = strings.length >= 4 ? Integer.parseInt(strings[3]) : null;
+        rounds = strings.length == 5 ? Integer.parseInt(strings[4]) : 1;
+      } catch (NumberFormatException e) {
+        player.sendMessage("The duration, the zoom level and the number of rounds must be numbers.");
+        return;
+      }
+      if (rounds < 1) {
+        player.sendMessage("A game must have at least one round.");
+        return;
+      }
+      commandSourceStack.getSender().sendMessage("Geocraft configuration started.");
+      GeoCraftWorld world = new GeoCraftWorld(player.getWorld());
+      database.supply(() -> loadSetup(type, strings[1], world)).thenAccept(setup -> {
+        if (setup.error != null) {
+          player.sendMessage(setup.error);
+          return;
         }
-        LocationToMapDao locationToMapDao = new LocationToMapDao();
-        if (locationToMapDao.getByPlayableZone(new LocationToMap(playableZone)) == null
-            && locationToMapDao.getParentMap(new LocationToMap(playableZone)) == null) {
-          player.sendMessage("The playable zone must be associated with a Map");
+        if (registry.getGame(player) != null) {
+          player.sendMessage("You are already in a game.");
+          return;
+        }
+        plugin.getLogger().info("Location found : " + setup.map.getLocationToMap().getDatabaseId());
+        if (zoom != null) {
+          setup.map.setZoomLevel(zoom);
         }
-
         player.sendMessage("Re-execute the command to start the game.");
-        alreadyStarted.put(player, true);
 
-        plugin.getLogger().info("Duration : " + Long.parseLong(strings[2]));
-        gameManager.setGameDuration(Duration.ofSeconds(Long.parseLong(strings[2])));
-        gameManager.setPlayableZone(playableZone);
-        gameManager.addPlayer(player);
-        LocationToMap location = locationToMapDao.getParentMap(new LocationToMap(playableZone));
-        if (location == null) {
-          throw new RuntimeException("Location not found");
-        } else {
-          plugin.getLogger().info("Location found : " + location.getDatabaseId());
-        }
-        GeocraftMap geocraftMap = new MapDao().getByLocationToMapId(location);
-        if (geocraftMap == null) {
-          throw new RuntimeException("Map not found");
-        }
-        gameManager.setMap(geocraftMap);
+        plugin.getLogger().info("Duration : " + duration.toSeconds());
+        GameManager gameManager = registry.createGame(plugin, player);
+        gameManager.setGameDuration(duration);
+        gameManager.setRoundCount(rounds);
+        gameManager.setPlayableZone(setup.zone);
+        gameManager.setMap(setup.map);
 
         player.getServer().sendMessage(Component.text("A Geocraft game is starting, "
             + "created by : " + player.getName()));
-        player.getServer().sendMessage(Component.text("Join the game by typing /geocraft-join"));
-
-      } else {
-        player.sendMessage("You must specify a type of playable area and the playable area name.");
+        player.getServer().sendMessage(Component.text("Join the game by typing /geocraft-join "
+            + player.getName()));
+      }).exceptionally(e -> {
+        database.report(player, e);
+        return null;
+      });
+    } else if (strings.length == 0) {
+      GameManager gameManager = registry.getGameOwnedBy(player.getUniqueId());
+      if (gameManager == null) {
+        player.sendMessage("No game is configured.");
+        return;
       }
-    } else {
-      alreadyStarted.put(player, false);
-      try {
-        gameManager.initGame(plugin);
-      } catch (Exception e) {
-        throw new RuntimeException(e);
+      if (gameManager.isGameStarted()) {
+        player.sendMessage("The game has already started.");
+        return;
       }
+      if (!gameManager.beginInitialization()) {
+        player.sendMessage("The game is already starting.");
+        return;
+      }
+      database.supply(gameManager::loadRoads)
+          .thenAccept(gameManager::initGame)
+          .exceptionally(e -> {
+            gameManager.cancelInitialization();
+            database.report(player, e);
+            return null;
+          });
+    } else {
+      player.sendMessage("You must specify a type of playable area and the playable area name.");
     }
+  }
 
+  /**
+   * Loads the playable zone of a game and its map. Runs on a database thread.
+   *
+   * @param type  The type of the playable zone.
+   * @param name  The name of the playable zone.
+   * @param world The world of the player, used when the playable zone is the world.
+   * @return The loaded game setup.
+   */
+  private static GameSetup loadSetup(String type, String name, GeoCraftWorld world) {
+    PlayableZone playableZone = switch (type) {
+      case "region" -> new RegionDao().getRegionByName(name);
+      case "city" -> new CityDao().getCityByName(name);
+      case "district" -> new DistrictDao().getDistrictByName(name);
+      default -> world;
+    };
+    if (playableZone == null) {
+      return new GameSetup(null, null, "Playable zone " + name + " not found.");
+    }
+    GeocraftMap geocraftMap = new MapDao().getParentMap(playableZone);
+    if (geocraftMap == null) {
+      return new GameSetup(null, null, "The playable zone must be associated with a Map");
+    }
+    return new GameSetup(playableZone, geocraftMap, null);
   }
 
   /**
@@ -148,4 +199,26 @@ public class GeocraftStart implements BasicCommand {
   public @Nullable String permission() {
     return BasicCommand.super.permission();
   }
+
+  /**
+   * Playable zone and map of a game loaded from the database, or the reason they could not be.
+   */
+  private static class GameSetup {
+    private final PlayableZone zone;
+    private final GeocraftMap map;
+    private final String error;
+
+    /**
+     * Constructs a GameSetup.
+     *
+     * @param zone  The playable zone.
+     * @param map   The map of the playable zone.
+     * @param error The message explaining why the setup could not be loaded, or null.
+     */
+    GameSetup(PlayableZone zone, GeocraftMap map, String error) {
+      this.zone = zone;
+      this.map = map;
+      this.error = error;
+    }
+  }
 }
\ No newline at end of file
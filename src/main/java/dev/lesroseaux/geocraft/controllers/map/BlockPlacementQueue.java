@@ -0,0 +1,226 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleConsumer;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Queue of block changes applied from a single repeating task.
+ * Blocks are grouped by chunk, chunks are loaded ahead asynchronously and every tick spends at
+ * most the configured time budget setting blocks, so that large maps never stall the server.
+ */
+public class BlockPlacementQueue {
+  private static final int CHUNKS_LOADED_AHEAD = 8;
+
+  private final Plugin plugin;
+  private final World world;
+  private final long tickBudgetNanos;
+  private final DoubleConsumer progress;
+  private final Map<Long, ChunkBatch> batches = new LinkedHashMap<>();
+  private final ArrayDeque<ChunkBatch> pending = new ArrayDeque<>();
+  private final ArrayDeque<ChunkBatch> loading = new ArrayDeque<>();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+  private BukkitTask task;
+  private int total;
+  private int placed;
+
+  /**
+   * Constructor for BlockPlacementQueue.
+   *
+   * @param plugin          The plugin instance.
+   * @param world           The world where the blocks are placed.
+   * @param tickBudgetNanos The maximum time spent placing blocks per tick, in nanoseconds.
+   * @param progress        The consumer notified of the placement progress, between 0 and 1.
+   */
+  public BlockPlacementQueue(Plugin plugin, World world, long tickBudgetNanos, DoubleConsumer progress) {
+    this.plugin = plugin;
+    this.world = world;
+    this.tickBudgetNanos = tickBudgetNanos;
+    this.progress = progress;
+  }
+
+  /**
+   * Adds a block change to the queue.
+   * Must not be called once the queue is started.
+   *
+   * @param x        The X coordinate of the block.
+   * @param y        The Y coordinate of the block.
+   * @param z        The Z coordinate of the block.
+   * @param material The material to set.
+   */
+  public void add(int x, int y, int z, Material material) {
+    long key = Chunk.getChunkKey(x >> 4, z >> 4);
+    batches.computeIfAbsent(key, k -> new ChunkBatch(x >> 4, z >> 4)).add(x, y, z, material);
+    total++;
+  }
+
+  /**
+   * Starts applying the queued block changes.
+   * Can be called from any thread, the changes are always applied on the main thread.
+   *
+   * @return A future completed on the main thread once every block is placed.
+   */
+  public CompletableFuture<Void> start() {
+    pending.addAll(batches.values());
+    if (total == 0) {
+      completion.complete(null);
+      return completion;
+    }
+    task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    return completion;
+  }
+
+  /**
+   * Gets the number of queued block changes.
+   *
+   * @return The number of block changes.
+   */
+  public int size() {
+    return total;
+  }
+
+  /**
+   * Applies queued block changes until the tick budget is spent.
+   */
+  private void tick() {
+    long deadline = System.nanoTime() + tickBudgetNanos;
+    try {
+      while (loading.size() < CHUNKS_LOADED_AHEAD && !pending.isEmpty()) {
+        ChunkBatch batch = pending.poll();
+        batch.load();
+        loading.add(batch);
+      }
+      while (!loading.isEmpty() && System.nanoTime() < deadline) {
+        ChunkBatch batch = loading.peek();
+        if (!batch.isLoaded()) {
+          break;
+        }
+        placed += batch.apply(deadline);
+        if (batch.isDone()) {
+          batch.release();
+          loading.poll();
+        }
+      }
+    } catch (RuntimeException e) {
+      task.cancel();
+      loading.forEach(ChunkBatch::release);
+      completion.completeExceptionally(e);
+      return;
+    }
+    progress.accept((double) placed / total);
+    if (loading.isEmpty() && pending.isEmpty()) {
+      task.cancel();
+      completion.complete(null);
+    }
+  }
+
+  /**
+   * Block changes of a single chunk.
+   */
+  private class ChunkBatch {
+    private final int chunkX;
+    private final int chunkZ;
+    private int[] positions = new int[48];
+    private Material[] materials = new Material[16];
+    private int size;
+    private int next;
+    private CompletableFuture<Chunk> chunk;
+
+    /**
+     * Constructs an empty ChunkBatch.
+     *
+     * @param chunkX The X coordinate of the chunk.
+     * @param chunkZ The Z coordinate of the chunk.
+     */
+    ChunkBatch(int chunkX, int chunkZ) {
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+    }
+
+    /**
+     * Adds a block change to the batch.
+     *
+     * @param x        The X coordinate of the block.
+     * @param y        The Y coordinate of the block.
+     * @param z        The Z coordinate of the block.
+     * @param material The material to set.
+     */
+    void add(int x, int y, int z, Material material) {
+      if (size == materials.length) {
+        positions = Arrays.copyOf(positions, size * 6);
+        materials = Arrays.copyOf(materials, size * 2);
+      }
+      positions[size * 3] = x;
+      positions[size * 3 + 1] = y;
+      positions[size * 3 + 2] = z;
+      materials[size] = material;
+      size++;
+    }
+
+    /**
+     * Starts loading the chunk and keeps it loaded until the batch is released.
+     */
+    void load() {
+      chunk = world.getChunkAtAsync(chunkX, chunkZ).thenApply(loaded -> {
+        loaded.addPluginChunkTicket(plugin);
+        return loaded;
+      });
+    }
+
+    /**
+     * Checks if the chunk of the batch is loaded.
+     *
+     * @return True if the chunk is loaded, false otherwise.
+     */
+    boolean isLoaded() {
+      if (chunk.isCompletedExceptionally()) {
+        chunk.join();
+      }
+      return chunk.isDone();
+    }
+
+    /**
+     * Applies the block changes of the batch until the deadline.
+     *
+     * @param deadline The value of {@link System#nanoTime()} at which to stop.
+     * @return The number of blocks placed.
+     */
+    int apply(long deadline) {
+      int start = next;
+      while (next < size && System.nanoTime() < deadline) {
+        world.getBlockAt(positions[next * 3], positions[next * 3 + 1], positions[next * 3 + 2])
+            .setType(materials[next], false);
+        next++;
+      }
+      return next - start;
+    }
+
+    /**
+     * Checks if every block change of the batch is applied.
+     *
+     * @return True if the batch is done, false otherwise.
+     */
+    boolean isDone() {
+      return next == size;
+    }
+
+    /**
+     * Releases the chunk ticket taken while the batch was applied.
+     * A chunk still loading gets its ticket released as soon as it is loaded.
+     */
+    void release() {
+      if (chunk != null) {
+        chunk.thenAccept(loaded -> loaded.removePluginChunkTicket(plugin));
+      }
+    }
+  }
+}
\ No newline at end of file
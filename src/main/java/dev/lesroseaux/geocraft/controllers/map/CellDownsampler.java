@@ -0,0 +1,52 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+/**
+ * Computes the dominant material of cells from the columns of a surface grid.
+ * It only works on material ordinals and does not depend on the server, and an instance keeps
+ * its histogram between calls, so it must not be shared between threads.
+ */
+public class CellDownsampler {
+  private final int scale;
+  private final MaterialHistogram histogram;
+
+  /**
+   * Constructs a CellDownsampler.
+   *
+   * @param scale     The number of columns per cell side.
+   * @param histogram The histogram used to count the materials of a cell.
+   */
+  public CellDownsampler(int scale, MaterialHistogram histogram) {
+    this.scale = scale;
+    this.histogram = histogram;
+  }
+
+  /**
+   * Computes the dominant material of a rectangle of cells covered by a surface grid.
+   *
+   * @param surface    The surface grid, aligned on the cells.
+   * @param cells      The cell grid to write the dominant materials to.
+   * @param firstCellX The X index in the cell grid of the first cell of the surface grid.
+   * @param firstCellZ The Z index in the cell grid of the first cell of the surface grid.
+   * @param fromX      The first X index of the rectangle, relative to the surface grid.
+   * @param fromZ      The first Z index of the rectangle, relative to the surface grid.
+   * @param toX        The X index after the rectangle, relative to the surface grid.
+   * @param toZ        The Z index after the rectangle, relative to the surface grid.
+   */
+  public void downsample(SurfaceGrid surface, CellGrid cells, int firstCellX, int firstCellZ,
+                         int fromX, int fromZ, int toX, int toZ) {
+    for (int cellX = fromX; cellX < toX; cellX++) {
+      for (int cellZ = fromZ; cellZ < toZ; cellZ++) {
+        int x = surface.getOriginX() + cellX * scale;
+        int z = surface.getOriginZ() + cellZ * scale;
+        for (int xx = 0; xx < scale; xx++) {
+          for (int zz = 0; zz < scale; zz++) {
+            histogram.add(surface.get(x + xx, z + zz));
+          }
+        }
+        cells.set(firstCellX + cellX, firstCellZ + cellZ, histogram.getDominant(),
+            histogram.getDominantCount());
+        histogram.reset();
+      }
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+/**
+ * Grid of the dominant material of every {@code scale x scale} cell of a map.
+ * One cell of the grid becomes one block of the guess map.
+ * The number of columns of the dominant material is kept with it, so that coarser grids can be
+ * derived from this one.
+ */
+public class CellGrid {
+  private final int width;
+  private final int depth;
+  private final int scale;
+  private final int[] materials;
+  private final int[] counts;
+
+  /**
+   * Constructs an empty CellGrid.
+   *
+   * @param width The number of cells along the X axis.
+   * @param depth The number of cells along the Z axis.
+   * @param scale The number of source columns per cell side.
+   */
+  public CellGrid(int width, int depth, int scale) {
+    this.width = width;
+    this.depth = depth;
+    this.scale = scale;
+    this.materials = new int[width * depth];
+    this.counts = new int[width * depth];
+  }
+
+  /**
+   * Sets the dominant material ordinal of a cell.
+   *
+   * @param cellX    The X index of the cell.
+   * @param cellZ    The Z index of the cell.
+   * @param material The material ordinal.
+   * @param count    The number of columns of the dominant material in the cell.
+   */
+  public void set(int cellX, int cellZ, int material, int count) {
+    materials[cellX * depth + cellZ] = material;
+    counts[cellX * depth + cellZ] = count;
+  }
+
+  /**
+   * Gets the dominant material ordinal of a cell.
+   *
+   * @param cellX The X index of the cell.
+   * @param cellZ The Z index of the cell.
+   * @return The material ordinal.
+   */
+  public int get(int cellX, int cellZ) {
+    return materials[cellX * depth + cellZ];
+  }
+
+  /**
+   * Gets the number of columns of the dominant material of a cell.
+   *
+   * @param cellX The X index of the cell.
+   * @param cellZ The Z index of the cell.
+   * @return The number of columns.
+   */
+  public int getCount(int cellX, int cellZ) {
+    return counts[cellX * depth + cellZ];
+  }
+
+  /**
+   * Gets the number of cells along the X axis.
+   *
+   * @return The width of the grid.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the number of cells along the Z axis.
+   *
+   * @return The depth of the grid.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Gets the number of source columns per cell side.
+   *
+   * @return The scale of the grid.
+   */
+  public int getScale() {
+    return scale;
+  }
+}
\ No newline at end of file
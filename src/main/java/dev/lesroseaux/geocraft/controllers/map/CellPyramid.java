@@ -0,0 +1,124 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.bukkit.Material;
+
+/**
+ * Pyramid of the cell grids of a map, from the sampled scale down to a single cell.
+ * Every level halves the resolution of the previous one: a cell of level {@code n + 1} covers
+ * {@code 2 x 2} cells of level {@code n}, so its scale is {@code 2^n} times the base scale.
+ * Coarser levels are derived from the finer ones, never from the terrain: the dominant material
+ * of a cell is the most frequent dominant material of its children, weighted by their counts.
+ */
+public class CellPyramid {
+  private static final int MATERIAL_COUNT = Material.values().length;
+
+  private final List<CellGrid> levels = new ArrayList<>();
+
+  /**
+   * Constructs the pyramid of a sampled cell grid.
+   *
+   * @param base The cell grid sampled from the terrain.
+   */
+  public CellPyramid(CellGrid base) {
+    levels.add(base);
+    MaterialHistogram histogram = new MaterialHistogram(MATERIAL_COUNT);
+    CellGrid level = base;
+    while (level.getWidth() > 1 || level.getDepth() > 1) {
+      CellGrid parent = new CellGrid(Math.ceilDiv(level.getWidth(), 2), Math.ceilDiv(level.getDepth(), 2),
+          level.getScale() * 2);
+      for (int cellX = 0; cellX < parent.getWidth(); cellX++) {
+        for (int cellZ = 0; cellZ < parent.getDepth(); cellZ++) {
+          merge(level, parent, cellX, cellZ, histogram);
+        }
+      }
+      levels.add(parent);
+      level = parent;
+    }
+  }
+
+  /**
+   * Gets the cell grid of a zoom level.
+   *
+   * @param level The zoom level, 0 being the sampled scale.
+   * @return The cell grid, or the coarsest one if the level is higher than the last level.
+   */
+  public CellGrid getLevel(int level) {
+    return levels.get(Math.min(Math.max(level, 0), levels.size() - 1));
+  }
+
+  /**
+   * Gets the cell grid sampled from the terrain.
+   *
+   * @return The base cell grid.
+   */
+  public CellGrid getBase() {
+    return levels.getFirst();
+  }
+
+  /**
+   * Gets the number of zoom levels.
+   *
+   * @return The number of levels.
+   */
+  public int getLevelCount() {
+    return levels.size();
+  }
+
+  /**
+   * Derives again the cells of the coarser levels covering some updated cells of the base level.
+   *
+   * @param dirtyCells The updated base cells, the bit of a cell being {@code cellX * depth + cellZ}.
+   * @param level      The zoom level whose updated cells are returned.
+   * @return The updated cells of the given level.
+   */
+  public BitSet refresh(BitSet dirtyCells, int level) {
+    level = Math.min(Math.max(level, 0), levels.size() - 1);
+    MaterialHistogram histogram = new MaterialHistogram(MATERIAL_COUNT);
+    BitSet dirty = dirtyCells;
+    BitSet result = dirty;
+    for (int n = 1; n < levels.size(); n++) {
+      CellGrid child = levels.get(n - 1);
+      CellGrid parent = levels.get(n);
+      BitSet parentDirty = new BitSet(parent.getWidth() * parent.getDepth());
+      for (int cell = dirty.nextSetBit(0); cell >= 0; cell = dirty.nextSetBit(cell + 1)) {
+        int cellX = cell / child.getDepth() / 2;
+        int cellZ = cell % child.getDepth() / 2;
+        int parentCell = cellX * parent.getDepth() + cellZ;
+        if (!parentDirty.get(parentCell)) {
+          parentDirty.set(parentCell);
+          merge(child, parent, cellX, cellZ, histogram);
+        }
+      }
+      dirty = parentDirty;
+      if (n == level) {
+        result = dirty;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes a cell of a level from its children in the finer level.
+   *
+   * @param child     The finer level.
+   * @param parent    The level of the cell.
+   * @param cellX     The X index of the cell.
+   * @param cellZ     The Z index of the cell.
+   * @param histogram The histogram used to count the materials, reset afterwards.
+   */
+  private static void merge(CellGrid child, CellGrid parent, int cellX, int cellZ,
+                            MaterialHistogram histogram) {
+    int maxX = Math.min(cellX * 2 + 2, child.getWidth());
+    int maxZ = Math.min(cellZ * 2 + 2, child.getDepth());
+    for (int x = cellX * 2; x < maxX; x++) {
+      for (int z = cellZ * 2; z < maxZ; z++) {
+        histogram.add(child.get(x, z), child.getCount(x, z));
+      }
+    }
+    parent.set(cellX, cellZ, histogram.getDominant(), histogram.getDominantCount());
+    histogram.reset();
+  }
+}
\ No newline at end of file
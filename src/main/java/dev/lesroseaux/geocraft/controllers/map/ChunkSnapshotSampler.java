@@ -0,0 +1,305 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import dev.lesroseaux.geocraft.models.game.GeocraftMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * Samples the terrain of a GeocraftMap from chunk snapshots.
+ * Chunks are loaded in bounded batches and snapshotted on the main thread, then every
+ * read and the downsampling of the cells happen on worker threads from the snapshots only.
+ * Both run as fork/join tasks: one task per chunk snapshot to read the surface, then the cells
+ * are split into tiles of a few chunks which idle workers steal from each other.
+ * Either the whole map area or only a set of cells can be sampled.
+ */
+public class ChunkSnapshotSampler {
+  private static final int MATERIAL_COUNT = Material.values().length;
+  private static final int TILE_COLUMNS = 4 * 16 * 16;
+  private static final ThreadLocal<MaterialHistogram> HISTOGRAMS =
+      ThreadLocal.withInitial(() -> new MaterialHistogram(MATERIAL_COUNT));
+
+  private final World world;
+  private final int batchSize;
+  private final ForkJoinPool pool;
+  private final DoubleConsumer progress;
+  private final int originX;
+  private final int originZ;
+  private final int scale;
+  private final int cellsX;
+  private final int cellsZ;
+  private final int minHeight;
+  private final int ceilingY;
+
+  /**
+   * Constructor for ChunkSnapshotSampler.
+   *
+   * @param world       The world to sample.
+   * @param geocraftMap The GeocraftMap giving the bounds and the scale.
+   * @param start       The location of the guess map, used to ignore it when it is inside the bounds.
+   * @param batchSize   The maximum number of chunks loaded at the same time.
+   * @param pool        The pool running the reads and the downsampling.
+   * @param progress    The consumer notified of the sampling progress, between 0 and 1.
+   */
+  public ChunkSnapshotSampler(World world, GeocraftMap geocraftMap, Location start, int batchSize,
+                              ForkJoinPool pool, DoubleConsumer progress) {
+    this.world = world;
+    this.batchSize = Math.max(1, batchSize);
+    this.pool = pool;
+    this.progress = progress;
+    this.scale = geocraftMap.getScale();
+    this.cellsX = Math.ceilDiv(geocraftMap.getMaxX() - geocraftMap.getMinX(), scale);
+    this.cellsZ = Math.ceilDiv(geocraftMap.getMaxZ() - geocraftMap.getMinZ(), scale);
+    this.originX = geocraftMap.getMinX();
+    this.originZ = geocraftMap.getMinZ();
+    this.minHeight = world.getMinHeight();
+    this.ceilingY = getCeilingY(world, geocraftMap, start);
+  }
+
+  /**
+   * Samples the map area.
+   * Must be called from the main thread.
+   *
+   * @return A future completed with the dominant material of every cell.
+   */
+  public CompletableFuture<CellGrid> sample() {
+    SurfaceGrid surface = new SurfaceGrid(originX, originZ, cellsX * scale, cellsZ * scale);
+    return sample(List.of(surface), new CellGrid(cellsX, cellsZ, scale));
+  }
+
+  /**
+   * Samples only some cells of the map area again and updates them in a cell grid.
+   * Only the chunks overlapping those cells are loaded.
+   * Must be called from the main thread.
+   *
+   * @param dirtyCells The cells to sample, the bit of a cell being {@code cellX * cellsZ + cellZ}.
+   * @param cells      The cell grid to update.
+   * @return A future completed with the updated cell grid.
+   */
+  public CompletableFuture<CellGrid> resample(BitSet dirtyCells, CellGrid cells) {
+    List<SurfaceGrid> surfaces = new ArrayList<>(dirtyCells.cardinality());
+    for (int cell = dirtyCells.nextSetBit(0); cell >= 0; cell = dirtyCells.nextSetBit(cell + 1)) {
+      surfaces.add(new SurfaceGrid(originX + cell / cellsZ * scale, originZ + cell % cellsZ * scale,
+          scale, scale));
+    }
+    return sample(surfaces, cells);
+  }
+
+  /**
+   * Samples the columns of some surface grids and downsamples them into a cell grid.
+   * Every surface grid must be aligned on the cells of the map.
+   *
+   * @param surfaces The surface grids to fill.
+   * @param cells    The cell grid to write the dominant materials to.
+   * @return A future completed with the cell grid.
+   */
+  private CompletableFuture<CellGrid> sample(List<SurfaceGrid> surfaces, CellGrid cells) {
+    Map<Long, List<SurfaceGrid>> chunks = new LinkedHashMap<>();
+    for (SurfaceGrid surface : surfaces) {
+      int maxChunkX = (surface.getOriginX() + surface.getWidth() - 1) >> 4;
+      int maxChunkZ = (surface.getOriginZ() + surface.getDepth() - 1) >> 4;
+      for (int chunkX = surface.getOriginX() >> 4; chunkX <= maxChunkX; chunkX++) {
+        for (int chunkZ = surface.getOriginZ() >> 4; chunkZ <= maxChunkZ; chunkZ++) {
+          chunks.computeIfAbsent(Chunk.getChunkKey(chunkX, chunkZ), key -> new ArrayList<>()).add(surface);
+        }
+      }
+    }
+    List<long[]> batches = new ArrayList<>();
+    long[] keys = chunks.keySet().stream().mapToLong(Long::longValue).toArray();
+    for (int i = 0; i < keys.length; i += batchSize) {
+      batches.add(Arrays.copyOfRange(keys, i, Math.min(i + batchSize, keys.length)));
+    }
+
+    List<CompletableFuture<Void>> extractions = new ArrayList<>();
+    AtomicInteger extracted = new AtomicInteger();
+    CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+    for (long[] batch : batches) {
+      loading = loading.thenCompose(ignored -> captureBatch(batch)).thenAccept(snapshots -> {
+        extractions.add(CompletableFuture.runAsync(() -> {
+          List<ForkJoinTask<?>> tasks = new ArrayList<>(snapshots.size());
+          for (ChunkSnapshot snapshot : snapshots) {
+            List<SurfaceGrid> overlapping = chunks.get(Chunk.getChunkKey(snapshot.getX(), snapshot.getZ()));
+            tasks.add(ForkJoinTask.adapt(() -> overlapping.forEach(surface -> extractSurface(snapshot, surface))));
+          }
+          ForkJoinTask.invokeAll(tasks);
+          int done = extracted.addAndGet(batch.length);
+          progress.accept((double) done / keys.length);
+        }, pool));
+      });
+    }
+    return loading
+        .thenCompose(ignored -> CompletableFuture.allOf(extractions.toArray(new CompletableFuture[0])))
+        .thenApplyAsync(ignored -> {
+          List<DownsampleTask> tasks = new ArrayList<>(surfaces.size());
+          for (SurfaceGrid surface : surfaces) {
+            tasks.add(new DownsampleTask(surface, cells, 0, 0, surface.getWidth() / scale,
+                surface.getDepth() / scale));
+          }
+          ForkJoinTask.invokeAll(tasks);
+          return cells;
+        }, pool);
+  }
+
+  /**
+   * Loads a batch of chunks and takes a snapshot of each of them.
+   * The snapshots are taken when the chunk futures complete, on the main thread.
+   *
+   * @param batch The keys of the chunks of the batch.
+   * @return A future completed with the snapshots of the generated chunks of the batch.
+   */
+  private CompletableFuture<List<ChunkSnapshot>> captureBatch(long[] batch) {
+    List<CompletableFuture<Chunk>> futures = new ArrayList<>(batch.length);
+    for (long key : batch) {
+      futures.add(world.getChunkAtAsync((int) key, (int) (key >> 32), false));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+      List<ChunkSnapshot> snapshots = new ArrayList<>(futures.size());
+      for (CompletableFuture<Chunk> future : futures) {
+        Chunk chunk = future.join();
+        if (chunk != null) {
+          snapshots.add(chunk.getChunkSnapshot(true, false, false));
+        }
+      }
+      return snapshots;
+    });
+  }
+
+  /**
+   * Writes the surface material of every column of a chunk snapshot inside a surface grid.
+   *
+   * @param snapshot The chunk snapshot.
+   * @param surface  The surface grid.
+   */
+  private void extractSurface(ChunkSnapshot snapshot, SurfaceGrid surface) {
+    int baseX = snapshot.getX() << 4;
+    int baseZ = snapshot.getZ() << 4;
+    for (int localX = 0; localX < 16; localX++) {
+      for (int localZ = 0; localZ < 16; localZ++) {
+        if (!surface.contains(baseX + localX, baseZ + localZ)) {
+          continue;
+        }
+        int y;
+        if (ceilingY != Integer.MAX_VALUE) {
+          y = ceilingY;
+          while (y > minHeight && snapshot.getBlockType(localX, y, localZ).isAir()) {
+            y--;
+          }
+        } else {
+          y = snapshot.getHighestBlockYAt(localX, localZ);
+        }
+        Material material = y < minHeight ? Material.AIR : snapshot.getBlockType(localX, y, localZ);
+        surface.set(baseX + localX, baseZ + localZ, material.ordinal());
+      }
+    }
+  }
+
+  /**
+   * Computes the dominant material of a rectangle of cells covered by a surface grid.
+   * Different rectangles can be computed at the same time, each one writes to its own cells.
+   *
+   * @param surface The surface grid.
+   * @param cells   The cell grid to write the dominant materials to.
+   * @param fromX   The first X index of the rectangle, relative to the surface grid.
+   * @param fromZ   The first Z index of the rectangle, relative to the surface grid.
+   * @param toX     The X index after the rectangle, relative to the surface grid.
+   * @param toZ     The Z index after the rectangle, relative to the surface grid.
+   */
+  private void downsample(SurfaceGrid surface, CellGrid cells, int fromX, int fromZ, int toX, int toZ) {
+    new CellDownsampler(scale, HISTOGRAMS.get()).downsample(surface, cells,
+        (surface.getOriginX() - originX) / scale, (surface.getOriginZ() - originZ) / scale,
+        fromX, fromZ, toX, toZ);
+  }
+
+  /**
+   * Gets the highest Y coordinate read when sampling a map.
+   * It is the only parameter of the sampling depending on the location of the guess map.
+   *
+   * @param world       The world of the map.
+   * @param geocraftMap The GeocraftMap giving the bounds.
+   * @param start       The location of the guess map.
+   * @return The highest Y coordinate read, or {@link Integer#MAX_VALUE} if the columns are read
+   *         from the top of the world.
+   */
+  static int getCeilingY(World world, GeocraftMap geocraftMap, Location start) {
+    return isStartInsideBounds(geocraftMap, start)
+        ? Math.min(start.getBlockY() - 1, world.getMaxHeight() - 1) : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Checks if the guess map is built inside the sampled area.
+   * In that case columns are read below it instead of from the top of the world.
+   *
+   * @param geocraftMap The GeocraftMap giving the bounds.
+   * @param start       The location of the guess map.
+   * @return True if the start location is inside the map bounds, false otherwise.
+   */
+  private static boolean isStartInsideBounds(GeocraftMap geocraftMap, Location start) {
+    return start.getX() < geocraftMap.getMaxX() && start.getX() > geocraftMap.getMinX()
+        && start.getZ() < geocraftMap.getMaxZ() && start.getZ() > geocraftMap.getMinZ();
+  }
+
+  /**
+   * Downsampling of a rectangle of cells, split in halves until it covers a few chunks.
+   */
+  private class DownsampleTask extends RecursiveAction {
+    private final SurfaceGrid surface;
+    private final CellGrid cells;
+    private final int fromX;
+    private final int fromZ;
+    private final int toX;
+    private final int toZ;
+
+    /**
+     * Constructs a DownsampleTask.
+     *
+     * @param surface The surface grid.
+     * @param cells   The cell grid to write the dominant materials to.
+     * @param fromX   The first X index of the rectangle, relative to the surface grid.
+     * @param fromZ   The first Z index of the rectangle, relative to the surface grid.
+     * @param toX     The X index after the rectangle, relative to the surface grid.
+     * @param toZ     The Z index after the rectangle, relative to the surface grid.
+     */
+    DownsampleTask(SurfaceGrid surface, CellGrid cells, int fromX, int fromZ, int toX, int toZ) {
+      this.surface = surface;
+      this.cells = cells;
+      this.fromX = fromX;
+      this.fromZ = fromZ;
+      this.toX = toX;
+      this.toZ = toZ;
+    }
+
+    /**
+     * Downsamples the rectangle, or splits it along its longest side if it is too large.
+     */
+    @Override
+    protected void compute() {
+      int width = toX - fromX;
+      int depth = toZ - fromZ;
+      if ((long) width * depth * scale * scale <= TILE_COLUMNS || (width == 1 && depth == 1)) {
+        downsample(surface, cells, fromX, fromZ, toX, toZ);
+      } else if (width >= depth) {
+        int middle = fromX + width / 2;
+        invokeAll(new DownsampleTask(surface, cells, fromX, fromZ, middle, toZ),
+            new DownsampleTask(surface, cells, middle, fromZ, toX, toZ));
+      } else {
+        int middle = fromZ + depth / 2;
+        invokeAll(new DownsampleTask(surface, cells, fromX, fromZ, toX, middle),
+            new DownsampleTask(surface, cells, fromX, middle, toX, toZ));
+      }
+    }
+  }
+}
\ No newline at end of file
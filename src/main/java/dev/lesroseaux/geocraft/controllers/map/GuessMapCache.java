@@ -0,0 +1,353 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import dev.lesroseaux.geocraft.models.game.GeocraftMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Persistent cache of the sampled cell grids of the guess maps.
+ * Every map is stored in its own compressed file of the plugin data folder, with a fingerprint
+ * of everything the sampling depends on: the map id, bounds and scale, the world and the
+ * location of the guess map. Materials are stored by name so the cache survives server updates.
+ * The header also keeps the world and the area of the map so its edits can be tracked on startup.
+ * Every entry ends with a CRC32 of all the bytes before it, so a corrupted entry is ignored.
+ * The fingerprint does not cover the terrain itself: the entries are kept in sync with it by the
+ * {@link MapEditTracker}, and the ids of the maps edited while the server runs are written to a
+ * journal as soon as they are edited. A journal left by a server that did not shut down cleanly
+ * invalidates the entries of the maps it lists on the next start. Changes the server does not
+ * report through events, like the ones made by editing plugins, need the map to be sampled again.
+ */
+public class GuessMapCache {
+  private static final int MAGIC = 0x4743_4D50;
+  private static final int VERSION = 4;
+  private static final String JOURNAL = "edited-maps.txt";
+
+  private final Plugin plugin;
+  private final File directory;
+
+  /**
+   * Constructor for GuessMapCache.
+   *
+   * @param plugin The plugin instance.
+   */
+  public GuessMapCache(Plugin plugin) {
+    this.plugin = plugin;
+    this.directory = new File(plugin.getDataFolder(), "maps");
+  }
+
+  /**
+   * Loads the cell grid of a map if a cache entry exists and matches its fingerprint.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @param world       The world of the map.
+   * @param start       The location of the guess map.
+   * @return The cached cell grid, or null if there is no valid entry.
+   */
+  public CellGrid load(GeocraftMap geocraftMap, World world, Location start) {
+    File file = getFile(geocraftMap);
+    if (file == null || !file.isFile()) {
+      return null;
+    }
+    CRC32 checksum = new CRC32();
+    try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(
+        new GZIPInputStream(new FileInputStream(file))), checksum))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION
+          || in.readLong() != fingerprint(geocraftMap, world, start)) {
+        return null;
+      }
+      in.skipNBytes(Long.BYTES * 2 + Integer.BYTES * 3);
+      int width = in.readInt();
+      int depth = in.readInt();
+      int[] palette = new int[in.readInt()];
+      for (int i = 0; i < palette.length; i++) {
+        String name = in.readUTF();
+        Material material = Material.matchMaterial(name);
+        if (material == null) {
+          return null;
+        }
+        palette[i] = material.ordinal();
+      }
+      CellGrid cells = new CellGrid(width, depth, geocraftMap.getScale());
+      for (int cellX = 0; cellX < width; cellX++) {
+        for (int cellZ = 0; cellZ < depth; cellZ++) {
+          int index = in.readUnsignedShort();
+          int count = in.readInt();
+          cells.set(cellX, cellZ, palette[index], count);
+        }
+      }
+      long expected = checksum.getValue();
+      if (in.readLong() != expected) {
+        plugin.getLogger().warning("Corrupted guess map cache " + file.getName() + ", ignoring it.");
+        return null;
+      }
+      return cells;
+    } catch (IOException | IndexOutOfBoundsException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not read guess map cache " + file.getName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Saves the cell grid of a map.
+   * The entry is written to a temporary file first so a crash never leaves a partial entry, the
+   * temporary file being unique so that the guess maps of a map built at once can save it
+   * concurrently.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @param world       The world of the map.
+   * @param start       The location of the guess map.
+   * @param cells       The sampled cell grid.
+   */
+  public void save(GeocraftMap geocraftMap, World world, Location start, CellGrid cells) {
+    File file = getFile(geocraftMap);
+    if (file == null || (!directory.isDirectory() && !directory.mkdirs())) {
+      return;
+    }
+    Material[] materials = Material.values();
+    Map<Integer, Integer> indexes = new HashMap<>();
+    List<String> palette = new ArrayList<>();
+    for (int cellX = 0; cellX < cells.getWidth(); cellX++) {
+      for (int cellZ = 0; cellZ < cells.getDepth(); cellZ++) {
+        indexes.computeIfAbsent(cells.get(cellX, cellZ), material -> {
+          palette.add(materials[material].name());
+          return palette.size() - 1;
+        });
+      }
+    }
+    File temporary = null;
+    try {
+      temporary = File.createTempFile(file.getName(), ".tmp", directory);
+      CRC32 checksum = new CRC32();
+      try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+          new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temporary))),
+          checksum))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint(geocraftMap, world, start));
+        out.writeLong(world.getUID().getMostSignificantBits());
+        out.writeLong(world.getUID().getLeastSignificantBits());
+        out.writeInt(geocraftMap.getMinX());
+        out.writeInt(geocraftMap.getMinZ());
+        out.writeInt(cells.getScale());
+        out.writeInt(cells.getWidth());
+        out.writeInt(cells.getDepth());
+        out.writeInt(palette.size());
+        for (String name : palette) {
+          out.writeUTF(name);
+        }
+        for (int cellX = 0; cellX < cells.getWidth(); cellX++) {
+          for (int cellZ = 0; cellZ < cells.getDepth(); cellZ++) {
+            int index = indexes.get(cells.get(cellX, cellZ));
+            int count = cells.getCount(cellX, cellZ);
+            out.writeShort(index);
+            out.writeInt(count);
+          }
+        }
+        out.writeLong(checksum.getValue());
+      }
+      Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not write guess map cache " + file.getName(), e);
+      if (temporary != null && temporary.isFile() && !temporary.delete()) {
+        plugin.getLogger().warning("Could not delete " + temporary.getName());
+      }
+    }
+  }
+
+  /**
+   * Opens the cache when the plugin is enabled.
+   * Invalidates the entries of the maps edited before an unclean shutdown, tracks the edits of
+   * every cached map and starts the journal of the edited maps.
+   *
+   * @param tracker The edit tracker.
+   */
+  public void open(MapEditTracker tracker) {
+    File journal = new File(directory, JOURNAL);
+    if (journal.isFile()) {
+      try {
+        List<String> ids = Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8);
+        plugin.getLogger().warning("The server did not shut down cleanly, invalidating the "
+            + "guess map cache of " + ids.size() + " edited maps.");
+        for (String id : ids) {
+          invalidate(Integer.parseInt(id.trim()));
+        }
+      } catch (IOException | NumberFormatException e) {
+        plugin.getLogger().log(Level.WARNING, "Could not read " + JOURNAL
+            + ", invalidating the whole guess map cache", e);
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("map-"));
+        for (File file : files == null ? new File[0] : files) {
+          if (!file.delete()) {
+            plugin.getLogger().warning("Could not delete guess map cache " + file.getName());
+          }
+        }
+      }
+    }
+    trackCachedMaps(tracker);
+    try {
+      if (directory.isDirectory() || directory.mkdirs()) {
+        Files.writeString(journal.toPath(), "", StandardCharsets.UTF_8);
+      }
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not create " + JOURNAL, e);
+    }
+    tracker.setDirtyListener(this::recordEdit);
+  }
+
+  /**
+   * Closes the cache when the plugin is disabled.
+   * Invalidates the entries of the maps edited since they were sampled, as the edits are not
+   * kept, and removes the journal of the edited maps.
+   *
+   * @param tracker The edit tracker.
+   */
+  public void close(MapEditTracker tracker) {
+    tracker.setDirtyListener(null);
+    tracker.getDirtyMapIds().forEach(this::invalidate);
+    File journal = new File(directory, JOURNAL);
+    if (journal.isFile() && !journal.delete()) {
+      plugin.getLogger().warning("Could not delete " + JOURNAL);
+    }
+  }
+
+  /**
+   * Writes the id of an edited map to the journal before the edit can be lost by a crash.
+   *
+   * @param mapId The id of the edited map.
+   */
+  private void recordEdit(int mapId) {
+    try {
+      Files.writeString(new File(directory, JOURNAL).toPath(), mapId + "\n",
+          StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not write " + JOURNAL
+          + ", invalidating the guess map cache of map " + mapId, e);
+      invalidate(mapId);
+    }
+  }
+
+  /**
+   * Tracks the edits made to the area of every cached map, so that their cached cells can be
+   * sampled again when the terrain changes.
+   *
+   * @param tracker The edit tracker.
+   */
+  private void trackCachedMaps(MapEditTracker tracker) {
+    File[] files = directory.listFiles((dir, name) -> name.startsWith("map-") && name.endsWith(".bin"));
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new GZIPInputStream(new FileInputStream(file))))) {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+          continue;
+        }
+        in.readLong();
+        UUID worldId = new UUID(in.readLong(), in.readLong());
+        int originX = in.readInt();
+        int originZ = in.readInt();
+        int scale = in.readInt();
+        int width = in.readInt();
+        int depth = in.readInt();
+        String name = file.getName();
+        int mapId = Integer.parseInt(name.substring("map-".length(), name.length() - ".bin".length()));
+        tracker.track(mapId, worldId, originX, originZ, width, depth, scale);
+      } catch (IOException | NumberFormatException e) {
+        plugin.getLogger().log(Level.WARNING, "Could not read guess map cache " + file.getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Deletes the cache entry of a map.
+   *
+   * @param geocraftMap The GeocraftMap.
+   */
+  public void invalidate(GeocraftMap geocraftMap) {
+    invalidate(geocraftMap.getId());
+  }
+
+  /**
+   * Deletes the cache entry of a map.
+   *
+   * @param mapId The id of the map.
+   */
+  public void invalidate(int mapId) {
+    File file = getFile(mapId);
+    if (file != null && file.isFile() && !file.delete()) {
+      plugin.getLogger().warning("Could not delete guess map cache " + file.getName());
+    }
+  }
+
+  /**
+   * Gets the cache file of a map.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @return The cache file, or null if the map is not saved in the database yet.
+   */
+  private File getFile(GeocraftMap geocraftMap) {
+    return getFile(geocraftMap.getId());
+  }
+
+  /**
+   * Gets the cache file of a map.
+   *
+   * @param mapId The id of the map.
+   * @return The cache file, or null if the map is not saved in the database yet.
+   */
+  private File getFile(int mapId) {
+    if (mapId == 0) {
+      return null;
+    }
+    return new File(directory, "map-" + mapId + ".bin");
+  }
+
+  /**
+   * Computes the fingerprint of the parameters a cell grid is sampled with.
+   * The location of the guess map only matters when the guess map is inside the bounds of the
+   * map, so the games building their guess maps in different slots share the same entry.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @param world       The world of the map.
+   * @param start       The location of the guess map.
+   * @return The fingerprint.
+   */
+  private static long fingerprint(GeocraftMap geocraftMap, World world, Location start) {
+    UUID worldId = world.getUID();
+    long[] values = {geocraftMap.getId(), geocraftMap.getMinX(), geocraftMap.getMinZ(),
+        geocraftMap.getMaxX(), geocraftMap.getMaxZ(), geocraftMap.getScale(),
+        worldId.getMostSignificantBits(), worldId.getLeastSignificantBits(),
+        ChunkSnapshotSampler.getCeilingY(world, geocraftMap, start)};
+    long hash = 0xcbf2_9ce4_8422_2325L;
+    for (long value : values) {
+      hash = (hash ^ value) * 0x0100_0000_01b3L;
+    }
+    return hash;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import java.util.BitSet;
+import org.bukkit.Material;
+
+/**
+ * Record of the blocks placed to build a guess map.
+ * The guess map is a single layer of blocks, so the footprint is a bit per column of the
+ * rectangle it was built in, which is enough to remove exactly what was placed.
+ */
+public class GuessMapFootprint {
+  private final int originX;
+  private final int y;
+  private final int originZ;
+  private final int width;
+  private final int depth;
+  private final BitSet placed;
+
+  /**
+   * Constructs an empty GuessMapFootprint.
+   *
+   * @param originX The X coordinate of the first block.
+   * @param y       The Y coordinate of the blocks.
+   * @param originZ The Z coordinate of the first block.
+   * @param width   The number of blocks along the X axis.
+   * @param depth   The number of blocks along the Z axis.
+   */
+  public GuessMapFootprint(int originX, int y, int originZ, int width, int depth) {
+    this.originX = originX;
+    this.y = y;
+    this.originZ = originZ;
+    this.width = width;
+    this.depth = depth;
+    this.placed = new BitSet(width * depth);
+  }
+
+  /**
+   * Records a placed block.
+   *
+   * @param offsetX The X offset of the block from the origin.
+   * @param offsetZ The Z offset of the block from the origin.
+   */
+  public void mark(int offsetX, int offsetZ) {
+    placed.set(offsetX * depth + offsetZ);
+  }
+
+  /**
+   * Queues the removal of every recorded block.
+   *
+   * @param queue The queue to add the changes to.
+   */
+  public void clear(BlockPlacementQueue queue) {
+    for (int index = placed.nextSetBit(0); index >= 0; index = placed.nextSetBit(index + 1)) {
+      queue.add(originX + index / depth, y, originZ + index % depth, Material.AIR);
+    }
+  }
+
+  /**
+   * Gets the number of recorded blocks.
+   *
+   * @return The number of blocks.
+   */
+  public int size() {
+    return placed.cardinality();
+  }
+}
\ No newline at end of file
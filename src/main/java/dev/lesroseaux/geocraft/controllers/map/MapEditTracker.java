@@ -0,0 +1,378 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import dev.lesroseaux.geocraft.models.game.GeocraftMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Tracks the block changes made inside the bounds of the sampled maps.
+ * Every change marks the {@code scale x scale} cell containing it as dirty, so that only those
+ * cells are sampled again on the next build instead of the whole map.
+ * Every method must be called from the main thread.
+ */
+public class MapEditTracker implements Listener {
+  private static MapEditTracker instance;
+
+  private final Map<Integer, TrackedMap> maps = new HashMap<>();
+  private TrackedMap[] areas = new TrackedMap[0];
+  private IntConsumer dirtyListener;
+
+  /**
+   * Private constructor for MapEditTracker.
+   */
+  private MapEditTracker() {
+  }
+
+  /**
+   * Returns the singleton instance of MapEditTracker.
+   *
+   * @return The singleton instance of MapEditTracker.
+   */
+  public static MapEditTracker getInstance() {
+    if (instance == null) {
+      instance = new MapEditTracker();
+    }
+    return instance;
+  }
+
+  /**
+   * Starts tracking the area of a sampled map, with no dirty cell.
+   * Tracking an already tracked map clears its dirty cells.
+   *
+   * @param mapId   The id of the map.
+   * @param worldId The UID of the world of the map.
+   * @param originX The world X coordinate of the first cell.
+   * @param originZ The world Z coordinate of the first cell.
+   * @param cellsX  The number of cells along the X axis.
+   * @param cellsZ  The number of cells along the Z axis.
+   * @param scale   The number of columns per cell side.
+   */
+  public void track(int mapId, UUID worldId, int originX, int originZ, int cellsX, int cellsZ, int scale) {
+    if (mapId == 0) {
+      return;
+    }
+    TrackedMap previous = maps.get(mapId);
+    TrackedMap tracked = new TrackedMap(mapId, worldId, originX, originZ, cellsX, cellsZ, scale);
+    if (previous != null) {
+      tracked.updaters.addAll(previous.updaters);
+    }
+    maps.put(mapId, tracked);
+    areas = maps.values().toArray(new TrackedMap[0]);
+  }
+
+  /**
+   * Starts tracking the area of a map, with no dirty cell.
+   * Must be called before sampling the map so that the edits made while sampling are kept.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @param world       The world of the map.
+   */
+  public void track(GeocraftMap geocraftMap, World world) {
+    int scale = geocraftMap.getScale();
+    track(geocraftMap.getId(), world.getUID(), geocraftMap.getMinX(), geocraftMap.getMinZ(),
+        Math.ceilDiv(geocraftMap.getMaxX() - geocraftMap.getMinX(), scale),
+        Math.ceilDiv(geocraftMap.getMaxZ() - geocraftMap.getMinZ(), scale), scale);
+  }
+
+  /**
+   * Adds a task re-placing the dirty cells of a map while one of its guess maps is built.
+   * A map can have several guess maps built at once, one per game playing it.
+   *
+   * @param mapId   The id of the map.
+   * @param updater The update task, given the dirty cells.
+   */
+  public void addUpdater(int mapId, Consumer<BitSet> updater) {
+    TrackedMap tracked = maps.get(mapId);
+    if (tracked != null) {
+      tracked.updaters.add(updater);
+    }
+  }
+
+  /**
+   * Removes the task re-placing the dirty cells of a guess map, once it is removed.
+   *
+   * @param mapId   The id of the map.
+   * @param updater The update task.
+   */
+  public void removeUpdater(int mapId, Consumer<BitSet> updater) {
+    TrackedMap tracked = maps.get(mapId);
+    if (tracked != null) {
+      tracked.updaters.remove(updater);
+    }
+  }
+
+  /**
+   * Returns the dirty cells of a map and clears them.
+   * The bit of a cell is {@code cellX * cellsZ + cellZ}.
+   *
+   * @param mapId The id of the map.
+   * @return The dirty cells, or null if the map is not tracked.
+   */
+  public BitSet takeDirtyCells(int mapId) {
+    TrackedMap tracked = maps.get(mapId);
+    if (tracked == null) {
+      return null;
+    }
+    BitSet dirty = (BitSet) tracked.dirty.clone();
+    tracked.dirty.clear();
+    return dirty;
+  }
+
+  /**
+   * Gets the ids of the maps having dirty cells.
+   *
+   * @return The ids of the dirty maps.
+   */
+  public List<Integer> getDirtyMapIds() {
+    List<Integer> ids = new ArrayList<>();
+    for (TrackedMap tracked : areas) {
+      if (!tracked.dirty.isEmpty()) {
+        ids.add(tracked.mapId);
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * Sets the listener notified when a map gets its first dirty cell since it was last sampled.
+   *
+   * @param dirtyListener The listener, given the id of the map, or null for none.
+   */
+  public void setDirtyListener(IntConsumer dirtyListener) {
+    this.dirtyListener = dirtyListener;
+  }
+
+  /**
+   * Schedules the update of the built guess maps having dirty cells.
+   * The dirty cells of a map are taken once and given to every guess map built from it.
+   *
+   * @param plugin        The plugin instance.
+   * @param intervalTicks The interval between two updates, in ticks.
+   */
+  public void scheduleUpdates(Plugin plugin, long intervalTicks) {
+    Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+      for (TrackedMap tracked : areas) {
+        if (!tracked.updaters.isEmpty() && !tracked.dirty.isEmpty()) {
+          BitSet dirty = takeDirtyCells(tracked.mapId);
+          for (Consumer<BitSet> updater : List.copyOf(tracked.updaters)) {
+            updater.accept((BitSet) dirty.clone());
+          }
+        }
+      }
+    }, intervalTicks, intervalTicks);
+  }
+
+  /**
+   * Event handler for block place events.
+   *
+   * @param event The block place event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Event handler for block break events.
+   *
+   * @param event The block break event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Event handler for explosions caused by entities, like creepers and TNT.
+   *
+   * @param event The entity explode event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    event.blockList().forEach(this::markDirty);
+  }
+
+  /**
+   * Event handler for explosions caused by blocks, like beds and respawn anchors.
+   *
+   * @param event The block explode event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event) {
+    markDirty(event.getBlock());
+    event.blockList().forEach(this::markDirty);
+  }
+
+  /**
+   * Event handler for extending pistons.
+   * Marks the piston head and both the old and the new position of every moved block.
+   *
+   * @param event The block piston extend event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPistonExtend(BlockPistonExtendEvent event) {
+    markDirty(event.getBlock().getRelative(event.getDirection()));
+    for (Block block : event.getBlocks()) {
+      markDirty(block);
+      markDirty(block.getRelative(event.getDirection()));
+    }
+  }
+
+  /**
+   * Event handler for retracting pistons.
+   * Marks the piston head and both the old and the new position of every moved block.
+   *
+   * @param event The block piston retract event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPistonRetract(BlockPistonRetractEvent event) {
+    markDirty(event.getBlock().getRelative(event.getDirection().getOppositeFace()));
+    for (Block block : event.getBlocks()) {
+      markDirty(block);
+      markDirty(block.getRelative(event.getDirection()));
+    }
+  }
+
+  /**
+   * Event handler for flowing liquids and dragon eggs teleporting.
+   *
+   * @param event The block from to event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFromTo(BlockFromToEvent event) {
+    markDirty(event.getToBlock());
+  }
+
+  /**
+   * Event handler for blocks destroyed by fire.
+   *
+   * @param event The block burn event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBurn(BlockBurnEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Event handler for decaying leaves.
+   *
+   * @param event The leaves decay event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onLeavesDecay(LeavesDecayEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Event handler for blocks formed by the world, like snow, ice and concrete.
+   *
+   * @param event The block form event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockForm(BlockFormEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Event handler for blocks fading away, like melting snow and ice or drying coral.
+   *
+   * @param event The block fade event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFade(BlockFadeEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks the cell containing a block as dirty in every tracked map covering it.
+   *
+   * @param block The changed block.
+   */
+  private void markDirty(Block block) {
+    int x = block.getX();
+    int z = block.getZ();
+    for (TrackedMap tracked : areas) {
+      if (tracked.contains(x, z) && tracked.worldId.equals(block.getWorld().getUID())) {
+        if (tracked.dirty.isEmpty() && dirtyListener != null) {
+          dirtyListener.accept(tracked.mapId);
+        }
+        tracked.dirty.set((x - tracked.originX) / tracked.scale * tracked.cellsZ
+            + (z - tracked.originZ) / tracked.scale);
+      }
+    }
+  }
+
+  /**
+   * Sampled area of a map and its dirty cells.
+   */
+  private static class TrackedMap {
+    private final int mapId;
+    private final UUID worldId;
+    private final int originX;
+    private final int originZ;
+    private final int cellsZ;
+    private final int scale;
+    private final int endX;
+    private final int endZ;
+    private final BitSet dirty;
+    private final List<Consumer<BitSet>> updaters = new ArrayList<>();
+
+    /**
+     * Constructs a TrackedMap with no dirty cell.
+     *
+     * @param mapId   The id of the map.
+     * @param worldId The UID of the world of the map.
+     * @param originX The world X coordinate of the first cell.
+     * @param originZ The world Z coordinate of the first cell.
+     * @param cellsX  The number of cells along the X axis.
+     * @param cellsZ  The number of cells along the Z axis.
+     * @param scale   The number of columns per cell side.
+     */
+    TrackedMap(int mapId, UUID worldId, int originX, int originZ, int cellsX, int cellsZ, int scale) {
+      this.mapId = mapId;
+      this.worldId = worldId;
+      this.originX = originX;
+      this.originZ = originZ;
+      this.cellsZ = cellsZ;
+      this.scale = scale;
+      this.endX = originX + cellsX * scale;
+      this.endZ = originZ + cellsZ * scale;
+      this.dirty = new BitSet(cellsX * cellsZ);
+    }
+
+    /**
+     * Checks if a column is inside the sampled area.
+     *
+     * @param x The world X coordinate of the column.
+     * @param z The world Z coordinate of the column.
+     * @return True if the column is inside the area, false otherwise.
+     */
+    boolean contains(int x, int z) {
+      return x >= originX && x < endX && z >= originZ && z < endZ;
+    }
+  }
+}
\ No newline at end of file
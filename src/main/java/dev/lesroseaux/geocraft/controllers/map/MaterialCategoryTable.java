@@ -0,0 +1,59 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+import dev.lesroseaux.geocraft.models.game.MaterialCategory;
+import java.util.Arrays;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Lookup table giving the map category of every material.
+ * The table is indexed by material ordinal, so resolving a category is a single array read.
+ */
+public class MaterialCategoryTable {
+  /**
+   * Category index of the materials that are not in any category.
+   */
+  public static final int NONE = -1;
+
+  private final byte[] categories;
+
+  /**
+   * Constructs a MaterialCategoryTable.
+   *
+   * @param categories The category index of every material ordinal, or {@link #NONE}.
+   */
+  public MaterialCategoryTable(byte[] categories) {
+    this.categories = categories;
+  }
+
+  /**
+   * Compiles the material lists of the configuration into a lookup table.
+   * When a material is listed in several categories, the first category wins.
+   *
+   * @param config The configuration holding the material lists.
+   * @return The compiled lookup table.
+   */
+  public static MaterialCategoryTable fromConfig(ConfigurationSection config) {
+    byte[] categories = new byte[Material.values().length];
+    Arrays.fill(categories, (byte) NONE);
+    for (MaterialCategory category : MaterialCategory.values()) {
+      for (String name : config.getStringList(category.getPath())) {
+        Material material = Material.matchMaterial(name);
+        if (material != null && categories[material.ordinal()] == NONE) {
+          categories[material.ordinal()] = (byte) category.ordinal();
+        }
+      }
+    }
+    return new MaterialCategoryTable(categories);
+  }
+
+  /**
+   * Gets the category index of a material.
+   *
+   * @param material The material ordinal.
+   * @return The ordinal of the MaterialCategory of the material, or {@link #NONE}.
+   */
+  public int getCategory(int material) {
+    return categories[material];
+  }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+/**
+ * Reusable histogram of material ordinals used to find the dominant material of a cell.
+ * It only allocates on construction: resetting it clears the counts of the materials seen
+ * since the last reset, and the dominant material is tracked while counting.
+ * When several materials share the highest count, the one with the lowest ordinal wins,
+ * so the result does not depend on the order in which the columns are read.
+ * An instance must not be shared between threads.
+ */
+public class MaterialHistogram {
+  private final int[] counts;
+  private final int[] seen;
+  private int seenCount;
+  private int dominant = -1;
+  private int dominantCount;
+
+  /**
+   * Constructs an empty MaterialHistogram.
+   *
+   * @param materialCount The number of distinct material ordinals.
+   */
+  public MaterialHistogram(int materialCount) {
+    this.counts = new int[materialCount];
+    this.seen = new int[materialCount];
+  }
+
+  /**
+   * Counts one occurrence of a material.
+   *
+   * @param material The material ordinal.
+   */
+  public void add(int material) {
+    add(material, 1);
+  }
+
+  /**
+   * Counts several occurrences of a material.
+   *
+   * @param material The material ordinal.
+   * @param weight   The number of occurrences.
+   */
+  public void add(int material, int weight) {
+    int count = counts[material];
+    if (count == 0) {
+      seen[seenCount++] = material;
+    }
+    count += weight;
+    counts[material] = count;
+    if (count > dominantCount || (count == dominantCount && material < dominant)) {
+      dominant = material;
+      dominantCount = count;
+    }
+  }
+
+  /**
+   * Gets the material with the highest count since the last reset.
+   *
+   * @return The dominant material ordinal, or -1 if nothing was counted.
+   */
+  public int getDominant() {
+    return dominant;
+  }
+
+  /**
+   * Gets the count of the dominant material.
+   *
+   * @return The count of the dominant material.
+   */
+  public int getDominantCount() {
+    return dominantCount;
+  }
+
+  /**
+   * Clears the histogram so it can be reused for the next cell.
+   */
+  public void reset() {
+    for (int i = 0; i < seenCount; i++) {
+      counts[seen[i]] = 0;
+    }
+    seenCount = 0;
+    dominant = -1;
+    dominantCount = 0;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+/**
+ * Maps the dominant material of a cell to the block placed on the guess map.
+ * The materials of a category are replaced by the material of the category, and the other
+ * materials are kept. Materials are given by ordinal, so a mapping is two array reads.
+ */
+public class MaterialMapping {
+  private final MaterialCategoryTable table;
+  private final int[] categoryMaterials;
+
+  /**
+   * Constructs a MaterialMapping.
+   *
+   * @param table             The category of every material.
+   * @param categoryMaterials The ordinal of the material placed for every category.
+   */
+  public MaterialMapping(MaterialCategoryTable table, int[] categoryMaterials) {
+    this.table = table;
+    this.categoryMaterials = categoryMaterials;
+  }
+
+  /**
+   * Gets the material placed for a dominant material.
+   *
+   * @param material The ordinal of the dominant material.
+   * @return The ordinal of the material to place.
+   */
+  public int map(int material) {
+    int category = table.getCategory(material);
+    return category == MaterialCategoryTable.NONE ? material : categoryMaterials[category];
+  }
+}
\ No newline at end of file
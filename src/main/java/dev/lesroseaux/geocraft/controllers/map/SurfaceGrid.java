@@ -0,0 +1,99 @@
+package dev.lesroseaux.geocraft.controllers.map;
+
+/**
+ * Grid of the surface material of every sampled column of a map area.
+ * Materials are stored as ordinals so the grid can be shared between worker threads
+ * without holding any reference to the world.
+ */
+public class SurfaceGrid {
+  private final int originX;
+  private final int originZ;
+  private final int width;
+  private final int depth;
+  private final short[] materials;
+
+  /**
+   * Constructs an empty SurfaceGrid.
+   *
+   * @param originX The world X coordinate of the first column.
+   * @param originZ The world Z coordinate of the first column.
+   * @param width   The number of columns along the X axis.
+   * @param depth   The number of columns along the Z axis.
+   */
+  public SurfaceGrid(int originX, int originZ, int width, int depth) {
+    this.originX = originX;
+    this.originZ = originZ;
+    this.width = width;
+    this.depth = depth;
+    this.materials = new short[width * depth];
+  }
+
+  /**
+   * Sets the surface material ordinal of a column.
+   *
+   * @param x        The world X coordinate of the column.
+   * @param z        The world Z coordinate of the column.
+   * @param material The material ordinal.
+   */
+  public void set(int x, int z, int material) {
+    materials[(x - originX) * depth + (z - originZ)] = (short) material;
+  }
+
+  /**
+   * Gets the surface material ordinal of a column.
+   *
+   * @param x The world X coordinate of the column.
+   * @param z The world Z coordinate of the column.
+   * @return The material ordinal.
+   */
+  public int get(int x, int z) {
+    return materials[(x - originX) * depth + (z - originZ)];
+  }
+
+  /**
+   * Checks if a column is covered by the grid.
+   *
+   * @param x The world X coordinate of the column.
+   * @param z The world Z coordinate of the column.
+   * @return True if the column is inside the grid, false otherwise.
+   */
+  public boolean contains(int x, int z) {
+    return x >= originX && x < originX + width && z >= originZ && z < originZ + depth;
+  }
+
+  /**
+   * Gets the world X coordinate of the first column.
+   *
+   * @return The origin X coordinate.
+   */
+  public int getOriginX() {
+    return originX;
+  }
+
+  /**
+   * Gets the world Z coordinate of the first column.
+   *
+   * @return The origin Z coordinate.
+   */
+  public int getOriginZ() {
+    return originZ;
+  }
+
+  /**
+   * Gets the number of columns along the X axis.
+   *
+   * @return The width of the grid.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the number of columns along the Z axis.
+   *
+   * @return The depth of the grid.
+   */
+  public int getDepth() {
+    return depth;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package dev.lesroseaux.geocraft.data;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs the database accesses of the plugin off the main thread.
+ * Queries run on a bounded pool of database threads, sized like the connection pool, and their
+ * futures complete back on the main thread, so the code chained to them can use the Bukkit API
+ * directly and the server never waits for the database.
+ */
+public class AsyncDatabase {
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+  private static AsyncDatabase instance;
+
+  private final Plugin plugin;
+  private final ExecutorService executor;
+  private final Executor mainThread;
+
+  /**
+   * Private constructor for AsyncDatabase.
+   *
+   * @param plugin  The plugin instance.
+   * @param threads The number of database threads.
+   */
+  private AsyncDatabase(Plugin plugin, int threads) {
+    this.plugin = plugin;
+    AtomicInteger count = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+      Thread thread = new Thread(runnable, "GeoCraft-Database-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.mainThread = task -> {
+      if (Bukkit.isPrimaryThread()) {
+        task.run();
+      } else {
+        Bukkit.getScheduler().runTask(plugin, task);
+      }
+    };
+  }
+
+  /**
+   * Starts the database threads.
+   *
+   * @param plugin  The plugin instance.
+   * @param threads The number of database threads.
+   */
+  public static synchronized void start(Plugin plugin, int threads) {
+    shutdown();
+    instance = new AsyncDatabase(plugin, threads);
+  }
+
+  /**
+   * Returns the singleton instance of AsyncDatabase.
+   *
+   * @return The singleton instance of AsyncDatabase.
+   * @throws IllegalStateException If the database threads are not started.
+   */
+  public static synchronized AsyncDatabase getInstance() {
+    if (instance == null) {
+      throw new IllegalStateException("The database threads are not started");
+    }
+    return instance;
+  }
+
+  /**
+   * Stops the database threads, waiting for the running queries to finish.
+   */
+  public static synchronized void shutdown() {
+    if (instance == null) {
+      return;
+    }
+    instance.executor.shutdown();
+    try {
+      if (!instance.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        instance.plugin.getLogger().warning("Database queries still running after "
+            + SHUTDOWN_TIMEOUT_SECONDS + " seconds, they are abandoned.");
+        instance.executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      instance.executor.shutdownNow();
+    }
+    instance = null;
+  }
+
+  /**
+   * Runs a query on a database thread.
+   *
+   * @param query The query, which must not use the Bukkit API.
+   * @param <T>   The type of the result.
+   * @return A future completed on the main thread with the result of the query.
+   */
+  public <T> CompletableFuture<T> supply(Supplier<T> query) {
+    return CompletableFuture.supplyAsync(query, executor)
+        .whenCompleteAsync((result, error) -> { }, mainThread);
+  }
+
+  /**
+   * Runs an update on a database thread.
+   *
+   * @param update The update, which must not use the Bukkit API.
+   * @return A future completed on the main thread once the update is done.
+   */
+  public CompletableFuture<Void> run(Runnable update) {
+    return CompletableFuture.runAsync(update, executor)
+        .whenCompleteAsync((result, error) -> { }, mainThread);
+  }
+
+  /**
+   * Logs a failed database access and tells the command sender that it failed.
+   *
+   * @param sender The sender of the command that accessed the database.
+   * @param error  The error.
+   */
+  public void report(CommandSender sender, Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    plugin.getLogger().log(Level.SEVERE, "Database access failed", cause);
+    sender.sendMessage("A database error occurred: " + cause.getMessage());
+  }
+}
\ No newline at end of file
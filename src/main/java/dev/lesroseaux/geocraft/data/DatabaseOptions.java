@@ -1,6 +1,8 @@
 package dev.lesroseaux.geocraft.data;
 
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import lombok.Getter;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -13,11 +15,16 @@ import org.jetbrains.annotations.NotNull;
  */
 @Getter
 public class DatabaseOptions implements ConfigurationSerializable {
+  private SqlDialect dialect = SqlDialect.MYSQL;
   private String host = "localhost";
   private int port = 3306;
   private String name = "geocraft";
   private String username = "geocraft";
   private String password = "password";
+  private int poolSize = 10;
+  private long leakDetectionThreshold = 10000;
+  private int statementCacheSize = 64;
+  private String file = "plugins/GeoCraft/geocraft.db";
 
   /**
    * Constructor for DatabaseOptions.
@@ -36,6 +43,33 @@ public class DatabaseOptions implements ConfigurationSerializable {
     this.password = password;
   }
 
+  /**
+   * Constructor for DatabaseOptions with connection pool settings.
+   *
+   * @param host                   The database host.
+   * @param port                   The database port.
+   * @param name                   The database name.
+   * @param username               The database username.
+   * @param password               The database password.
+   * @param poolSize               The maximum number of connections.
+   * @param leakDetectionThreshold The time in milliseconds after which a borrowed connection is
+   *                               reported as leaked, or 0 to disable leak detection.
+   * @param statementCacheSize     The maximum number of prepared statements cached per
+   *                               connection, or 0 to disable the statement cache.
+   * @param dialect                The database backend.
+   * @param file                   The database file, for the file-based backends.
+   */
+  public DatabaseOptions(String host, int port, String name, String username, String password,
+                         int poolSize, long leakDetectionThreshold, int statementCacheSize,
+                         SqlDialect dialect, String file) {
+    this(host, port, name, username, password);
+    this.poolSize = poolSize;
+    this.leakDetectionThreshold = leakDetectionThreshold;
+    this.statementCacheSize = statementCacheSize;
+    this.dialect = dialect;
+    this.file = file;
+  }
+
   /**
    * Loads DatabaseOptions from a FileConfiguration.
    *
@@ -45,7 +79,11 @@ public class DatabaseOptions implements ConfigurationSerializable {
   public static DatabaseOptions loadFromConfig(@NotNull FileConfiguration config) {
     return new DatabaseOptions(config.getString("database.host"), config.getInt("database.port"),
         config.getString("database.database"),
-        config.getString("database.username"), config.getString("database.password"));
+        config.getString("database.username"), config.getString("database.password"),
+        config.getInt("database.poolSize", 10), config.getLong("database.leakDetectionThreshold", 10000),
+        config.getInt("database.statementCacheSize", 64),
+        SqlDialect.fromName(config.getString("database.type", "mysql")),
+        config.getString("database.file", "plugins/GeoCraft/geocraft.db"));
   }
 
   /**
@@ -61,6 +99,11 @@ public class DatabaseOptions implements ConfigurationSerializable {
     data.put("database", name);
     data.put("username", username);
     data.put("password", password);
+    data.put("poolSize", poolSize);
+    data.put("leakDetectionThreshold", leakDetectionThreshold);
+    data.put("statementCacheSize", statementCacheSize);
+    data.put("type", dialect.name().toLowerCase(Locale.ROOT));
+    data.put("file", file);
 
     return data;
   }
@@ -75,7 +118,12 @@ public class DatabaseOptions implements ConfigurationSerializable {
     return new DatabaseOptions((String) data.get("host"), (int) data.get("port"),
         (String) data.get("database"),
         (String) data.get("username"),
-        (String) data.get("password"));
+        (String) data.get("password"),
+        ((Number) data.getOrDefault("poolSize", 10)).intValue(),
+        ((Number) data.getOrDefault("leakDetectionThreshold", 10000L)).longValue(),
+        ((Number) data.getOrDefault("statementCacheSize", 64)).intValue(),
+        SqlDialect.fromName((String) data.getOrDefault("type", "mysql")),
+        (String) data.getOrDefault("file", "plugins/GeoCraft/geocraft.db"));
   }
 
   /**
@@ -90,6 +138,11 @@ public class DatabaseOptions implements ConfigurationSerializable {
         + ", name='" + name + '\''
         + ", username='" + username + '\''
         + ", password='" + password + '\''
+        + ", poolSize=" + poolSize
+        + ", leakDetectionThreshold=" + leakDetectionThreshold
+        + ", statementCacheSize=" + statementCacheSize
+        + ", dialect=" + dialect
+        + ", file='" + file + '\''
         + '}';
   }
 }
\ No newline at end of file
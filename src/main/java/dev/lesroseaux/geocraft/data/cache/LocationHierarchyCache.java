@@ -0,0 +1,707 @@
+package dev.lesroseaux.geocraft.data.cache;
+
+import dev.lesroseaux.geocraft.data.AsyncDatabase;
+import dev.lesroseaux.geocraft.data.dao.CityDao;
+import dev.lesroseaux.geocraft.data.dao.DistrictDao;
+import dev.lesroseaux.geocraft.data.dao.RegionDao;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
+import dev.lesroseaux.geocraft.data.dao.WorldDao;
+import dev.lesroseaux.geocraft.models.location.City;
+import dev.lesroseaux.geocraft.models.location.District;
+import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
+import dev.lesroseaux.geocraft.models.location.Region;
+import dev.lesroseaux.geocraft.models.location.Road;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+
+/**
+ * Read-through cache of the location hierarchy: worlds, regions, cities, districts and roads.
+ * The whole hierarchy is loaded from the database on a database thread once the database is
+ * connected, then every lookup by id, by name (ignoring case) or by parent is a memory read.
+ * The main thread never waits for the database: until the hierarchy is loaded, its lookups find
+ * nothing, which callers tell apart with {@link #isLoaded()}, while a lookup from another thread
+ * loads the hierarchy first. The DAOs patch the
+ * cache when they insert, update or delete a location, and {@link #invalidate()} drops it and
+ * loads it again on a database thread.
+ */
+public class LocationHierarchyCache {
+  private static final Logger LOGGER = Logger.getLogger(LocationHierarchyCache.class.getName());
+  private static final long RETRY_DELAY_SECONDS = 30;
+  private static LocationHierarchyCache instance;
+
+  private final Index<UUID, GeoCraftWorld> worlds =
+      new Index<>(GeoCraftWorld::getWorldId, GeoCraftWorld::getWorldName, null);
+  private final Index<Integer, Region> regions =
+      new Index<>(Region::getRegionId, Region::getRegionName, Region::getWorldId);
+  private final Index<Integer, City> cities =
+      new Index<>(City::getCityId, City::getCityName, City::getRegionId);
+  private final Index<Integer, District> districts =
+      new Index<>(District::getDistrictId, District::getDistrictName, District::getCityId);
+  private final Index<Integer, Road> roads =
+      new Index<>(Road::getZoneId, null, Road::getDistrictId);
+  private boolean loaded;
+  private boolean warming;
+  private int generation;
+
+  /**
+   * Private constructor for LocationHierarchyCache.
+   */
+  private LocationHierarchyCache() {
+  }
+
+  /**
+   * Returns the singleton instance of LocationHierarchyCache.
+   *
+   * @return The singleton instance of LocationHierarchyCache.
+   */
+  public static synchronized LocationHierarchyCache getInstance() {
+    if (instance == null) {
+      instance = new LocationHierarchyCache();
+    }
+    return instance;
+  }
+
+  /**
+   * Drops the cached hierarchy and loads it again on a database thread.
+   */
+  public void invalidate() {
+    synchronized (this) {
+      loaded = false;
+      generation++;
+      clear();
+    }
+    warmUp();
+  }
+
+  /**
+   * Loads the hierarchy on a database thread, unless it is already loaded or loading.
+   * A failed load is logged and tried again after a delay.
+   */
+  public void warmUp() {
+    synchronized (this) {
+      if (loaded || warming) {
+        return;
+      }
+      warming = true;
+    }
+    AsyncDatabase.getInstance().run(this::load).whenComplete((result, error) -> {
+      synchronized (this) {
+        warming = false;
+      }
+      if (error != null) {
+        LOGGER.log(Level.SEVERE, "Could not load the location hierarchy, retrying in "
+            + RETRY_DELAY_SECONDS + " seconds", error);
+        CompletableFuture.runAsync(this::warmUp,
+            CompletableFuture.delayedExecutor(RETRY_DELAY_SECONDS, TimeUnit.SECONDS));
+      }
+    });
+  }
+
+  /**
+   * Checks if the hierarchy is loaded. Until it is, the lookups made from the main thread find
+   * nothing, so their callers must tell apart a location not loaded yet from a missing one.
+   *
+   * @return True if the hierarchy is loaded, false otherwise.
+   */
+  public synchronized boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Gets a world by its UUID.
+   *
+   * @param worldId The UUID of the world.
+   * @return The world, or null if not found.
+   */
+  public GeoCraftWorld getWorld(UUID worldId) {
+    load();
+    synchronized (this) {
+      return worlds.get(worldId);
+    }
+  }
+
+  /**
+   * Gets all the worlds.
+   *
+   * @return A list of all worlds.
+   */
+  public ArrayList<GeoCraftWorld> getWorlds() {
+    load();
+    synchronized (this) {
+      return worlds.getAll();
+    }
+  }
+
+  /**
+   * Gets a region by its ID.
+   *
+   * @param regionId The ID of the region.
+   * @return The region, or null if not found.
+   */
+  public Region getRegion(int regionId) {
+    load();
+    synchronized (this) {
+      return regions.get(regionId);
+    }
+  }
+
+  /**
+   * Gets a region by its name, ignoring case.
+   *
+   * @param regionName The name of the region.
+   * @return The region, or null if not found.
+   */
+  public Region getRegionByName(String regionName) {
+    load();
+    synchronized (this) {
+      return regions.getByName(regionName);
+    }
+  }
+
+  /**
+   * Gets all the regions.
+   *
+   * @return A list of all regions.
+   */
+  public ArrayList<Region> getRegions() {
+    load();
+    synchronized (this) {
+      return regions.getAll();
+    }
+  }
+
+  /**
+   * Gets the regions of a world.
+   *
+   * @param worldId The UUID of the world.
+   * @return A list of the regions of the world.
+   */
+  public ArrayList<Region> getRegionsByWorldId(UUID worldId) {
+    load();
+    synchronized (this) {
+      return regions.getChildren(worldId);
+    }
+  }
+
+  /**
+   * Gets a city by its ID.
+   *
+   * @param cityId The ID of the city.
+   * @return The city, or null if not found.
+   */
+  public City getCity(int cityId) {
+    load();
+    synchronized (this) {
+      return cities.get(cityId);
+    }
+  }
+
+  /**
+   * Gets a city by its name, ignoring case.
+   *
+   * @param cityName The name of the city.
+   * @return The city, or null if not found.
+   */
+  public City getCityByName(String cityName) {
+    load();
+    synchronized (this) {
+      return cities.getByName(cityName);
+    }
+  }
+
+  /**
+   * Gets all the cities.
+   *
+   * @return A list of all cities.
+   */
+  public ArrayList<City> getCities() {
+    load();
+    synchronized (this) {
+      return cities.getAll();
+    }
+  }
+
+  /**
+   * Gets the cities of a region.
+   *
+   * @param regionId The ID of the region.
+   * @return A list of the cities of the region.
+   */
+  public ArrayList<City> getCitiesByRegionId(int regionId) {
+    load();
+    synchronized (this) {
+      return cities.getChildren(regionId);
+    }
+  }
+
+  /**
+   * Gets a district by its ID.
+   *
+   * @param districtId The ID of the district.
+   * @return The district, or null if not found.
+   */
+  public District getDistrict(int districtId) {
+    load();
+    synchronized (this) {
+      return districts.get(districtId);
+    }
+  }
+
+  /**
+   * Gets a district by its name, ignoring case.
+   *
+   * @param districtName The name of the district.
+   * @return The district, or null if not found.
+   */
+  public District getDistrictByName(String districtName) {
+    load();
+    synchronized (this) {
+      return districts.getByName(districtName);
+    }
+  }
+
+  /**
+   * Gets all the districts.
+   *
+   * @return A list of all districts.
+   */
+  public ArrayList<District> getDistricts() {
+    load();
+    synchronized (this) {
+      return districts.getAll();
+    }
+  }
+
+  /**
+   * Gets the districts of a city.
+   *
+   * @param cityId The ID of the city.
+   * @return A list of the districts of the city.
+   */
+  public ArrayList<District> getDistrictsByCityId(int cityId) {
+    load();
+    synchronized (this) {
+      return districts.getChildren(cityId);
+    }
+  }
+
+  /**
+   * Gets a road by its ID.
+   *
+   * @param zoneId The ID of the road.
+   * @return The road, or null if not found.
+   */
+  public Road getRoad(int zoneId) {
+    load();
+    synchronized (this) {
+      return roads.get(zoneId);
+    }
+  }
+
+  /**
+   * Gets all the roads.
+   *
+   * @return A list of all roads.
+   */
+  public ArrayList<Road> getRoads() {
+    load();
+    synchronized (this) {
+      return roads.getAll();
+    }
+  }
+
+  /**
+   * Gets the roads of a district.
+   *
+   * @param districtId The ID of the district.
+   * @return A list of the roads of the district.
+   */
+  public ArrayList<Road> getRoadsByDistrictId(int districtId) {
+    load();
+    synchronized (this) {
+      return roads.getChildren(districtId);
+    }
+  }
+
+  /**
+   * Gets the roads of every district of a city.
+   *
+   * @param cityId The ID of the city.
+   * @return A list of the roads of the city.
+   */
+  public ArrayList<Road> getRoadsByCityId(int cityId) {
+    load();
+    synchronized (this) {
+      ArrayList<Road> result = new ArrayList<>();
+      addRoadsOfCity(cityId, result);
+      return result;
+    }
+  }
+
+  /**
+   * Gets the roads of every city of a region.
+   *
+   * @param regionId The ID of the region.
+   * @return A list of the roads of the region.
+   */
+  public ArrayList<Road> getRoadsByRegionId(int regionId) {
+    load();
+    synchronized (this) {
+      ArrayList<Road> result = new ArrayList<>();
+      for (City city : cities.children(regionId)) {
+        addRoadsOfCity(city.getCityId(), result);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Gets the roads of every region of a world.
+   *
+   * @param worldId The UUID of the world.
+   * @return A list of the roads of the world.
+   */
+  public ArrayList<Road> getRoadsByWorldId(UUID worldId) {
+    load();
+    synchronized (this) {
+      ArrayList<Road> result = new ArrayList<>();
+      for (Region region : regions.children(worldId)) {
+        for (City city : cities.children(region.getRegionId())) {
+          addRoadsOfCity(city.getCityId(), result);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Adds or replaces a world in the cache, if it is loaded. Otherwise, a running load is made
+   * to query the database again, as it may have read it before the change.
+   *
+   * @param world The world.
+   */
+  public synchronized void put(GeoCraftWorld world) {
+    if (loaded) {
+      worlds.put(world);
+    } else {
+      generation++;
+    }
+  }
+
+  /**
+   * Adds or replaces a region in the cache, if it is loaded.
+   *
+   * @param region The region.
+   */
+  public synchronized void put(Region region) {
+    if (loaded) {
+      regions.put(region);
+    } else {
+      generation++;
+    }
+  }
+
+  /**
+   * Adds or replaces a city in the cache, if it is loaded.
+   *
+   * @param city The city.
+   */
+  public synchronized void put(City city) {
+    if (loaded) {
+      cities.put(city);
+    } else {
+      generation++;
+    }
+  }
+
+  /**
+   * Adds or replaces a district in the cache, if it is loaded.
+   *
+   * @param district The district.
+   */
+  public synchronized void put(District district) {
+    if (loaded) {
+      districts.put(district);
+    } else {
+      generation++;
+    }
+  }
+
+  /**
+   * Adds or replaces a road in the cache, if it is loaded.
+   *
+   * @param road The road.
+   */
+  public synchronized void put(Road road) {
+    if (loaded) {
+      roads.put(road);
+    } else {
+      generation++;
+    }
+  }
+
+  /**
+   * Removes a world from the cache.
+   *
+   * @param world The world.
+   */
+  public synchronized void remove(GeoCraftWorld world) {
+    worlds.remove(world.getWorldId());
+    generation++;
+  }
+
+  /**
+   * Removes a region from the cache.
+   *
+   * @param region The region.
+   */
+  public synchronized void remove(Region region) {
+    regions.remove(region.getRegionId());
+    generation++;
+  }
+
+  /**
+   * Removes a city from the cache.
+   *
+   * @param city The city.
+   */
+  public synchronized void remove(City city) {
+    cities.remove(city.getCityId());
+    generation++;
+  }
+
+  /**
+   * Removes a district from the cache.
+   *
+   * @param district The district.
+   */
+  public synchronized void remove(District district) {
+    districts.remove(district.getDistrictId());
+    generation++;
+  }
+
+  /**
+   * Removes a road from the cache.
+   *
+   * @param road The road.
+   */
+  public synchronized void remove(Road road) {
+    roads.remove(road.getZoneId());
+    generation++;
+  }
+
+  /**
+   * Adds the roads of every district of a city to a list.
+   *
+   * @param cityId The ID of the city.
+   * @param result The list receiving the roads.
+   */
+  private void addRoadsOfCity(int cityId, List<Road> result) {
+    for (District district : districts.children(cityId)) {
+      result.addAll(roads.children(district.getDistrictId()));
+    }
+  }
+
+  /**
+   * Loads the whole hierarchy from the database, unless it is already loaded.
+   * On the main thread, the hierarchy is loaded on a database thread instead, and the lookups
+   * use what is loaded. The queries run without holding the lock, and run again if the cache is
+   * changed meanwhile.
+   */
+  private void load() {
+    if (Bukkit.isPrimaryThread()) {
+      warmUp();
+      return;
+    }
+    while (true) {
+      int seen;
+      synchronized (this) {
+        if (loaded) {
+          return;
+        }
+        seen = generation;
+      }
+      ArrayList<GeoCraftWorld> loadedWorlds = new WorldDao().loadAll();
+      ArrayList<Region> loadedRegions = new RegionDao().loadAll();
+      ArrayList<City> loadedCities = new CityDao().loadAll();
+      ArrayList<District> loadedDistricts = new DistrictDao().loadAll();
+      ArrayList<Road> loadedRoads = new RoadDao().loadAll();
+      synchronized (this) {
+        if (loaded) {
+          return;
+        }
+        if (generation == seen) {
+          clear();
+          loadedWorlds.forEach(worlds::put);
+          loadedRegions.forEach(regions::put);
+          loadedCities.forEach(cities::put);
+          loadedDistricts.forEach(districts::put);
+          loadedRoads.forEach(roads::put);
+          loaded = true;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes every location from the cache.
+   */
+  private void clear() {
+    worlds.clear();
+    regions.clear();
+    cities.clear();
+    districts.clear();
+    roads.clear();
+  }
+
+  /**
+   * Indexes of a level of the hierarchy by id, by lowercase name and by parent.
+   *
+   * @param <K> The type of the ids.
+   * @param <T> The type of the locations.
+   */
+  private static class Index<K, T> {
+    private final Function<T, K> idOf;
+    private final Function<T, String> nameOf;
+    private final Function<T, Object> parentOf;
+    private final Map<K, T> byId = new HashMap<>();
+    private final Map<String, T> byName = new HashMap<>();
+    private final Map<Object, List<T>> byParent = new HashMap<>();
+    private final Map<K, String> indexedNames = new HashMap<>();
+    private final Map<K, Object> indexedParents = new HashMap<>();
+
+    /**
+     * Constructs an empty Index.
+     *
+     * @param idOf     The function giving the id of a location.
+     * @param nameOf   The function giving the name of a location, or null to not index names.
+     * @param parentOf The function giving the id of the parent of a location, or null to not
+     *                 index parents.
+     */
+    Index(Function<T, K> idOf, Function<T, String> nameOf, Function<T, Object> parentOf) {
+      this.idOf = idOf;
+      this.nameOf = nameOf;
+      this.parentOf = parentOf;
+    }
+
+    /**
+     * Gets a location by its id.
+     *
+     * @param id The id.
+     * @return The location, or null if not found.
+     */
+    T get(K id) {
+      return byId.get(id);
+    }
+
+    /**
+     * Gets a location by its name, ignoring case.
+     *
+     * @param name The name.
+     * @return The location, or null if not found.
+     */
+    T getByName(String name) {
+      return name == null ? null : byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets a copy of all the locations.
+     *
+     * @return A list of all locations.
+     */
+    ArrayList<T> getAll() {
+      return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Gets a copy of the children of a parent.
+     *
+     * @param parentId The id of the parent.
+     * @return A list of the children.
+     */
+    ArrayList<T> getChildren(Object parentId) {
+      return new ArrayList<>(children(parentId));
+    }
+
+    /**
+     * Gets the children of a parent, without copying them.
+     *
+     * @param parentId The id of the parent.
+     * @return The children, which must not be modified.
+     */
+    List<T> children(Object parentId) {
+      return byParent.getOrDefault(parentId, List.of());
+    }
+
+    /**
+     * Adds or replaces a location.
+     *
+     * @param value The location.
+     */
+    void put(T value) {
+      K id = idOf.apply(value);
+      remove(id);
+      byId.put(id, value);
+      if (nameOf != null && nameOf.apply(value) != null) {
+        String name = nameOf.apply(value).toLowerCase(Locale.ROOT);
+        byName.putIfAbsent(name, value);
+        indexedNames.put(id, name);
+      }
+      if (parentOf != null) {
+        Object parent = parentOf.apply(value);
+        byParent.computeIfAbsent(parent, key -> new ArrayList<>()).add(value);
+        indexedParents.put(id, parent);
+      }
+    }
+
+    /**
+     * Removes a location, using the name and parent it was indexed with, so that a location
+     * modified in place is removed from its old indexes.
+     * If another location has the same name, it is found by name afterwards.
+     *
+     * @param id The id of the location.
+     */
+    void remove(K id) {
+      T old = byId.remove(id);
+      if (old == null) {
+        return;
+      }
+      String name = indexedNames.remove(id);
+      if (name != null && byName.get(name) == old) {
+        byName.remove(name);
+        indexedNames.entrySet().stream()
+            .filter(entry -> entry.getValue().equals(name))
+            .findFirst()
+            .ifPresent(entry -> byName.put(name, byId.get(entry.getKey())));
+      }
+      if (indexedParents.containsKey(id)) {
+        List<T> siblings = byParent.get(indexedParents.remove(id));
+        if (siblings != null) {
+          siblings.remove(old);
+        }
+      }
+    }
+
+    /**
+     * Removes every location.
+     */
+    void clear() {
+      byId.clear();
+      byName.clear();
+      byParent.clear();
+      indexedNames.clear();
+      indexedParents.clear();
+    }
+  }
+}
\ No newline at end of file
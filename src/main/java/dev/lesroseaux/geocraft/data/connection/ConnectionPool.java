@@ -0,0 +1,354 @@
+package dev.lesroseaux.geocraft.data.connection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of JDBC connections.
+ * Connections are borrowed for a single operation and given back by closing them. A thread
+ * borrowing again while it already holds a connection gets the same one, so nested DAO calls
+ * never wait for a second connection, and join the transaction of the outer call if it started
+ * one. Idle connections are validated before being lent again, their transaction state is reset
+ * when they are given back, and connections held for too long are reported with the stack trace
+ * of the code that borrowed them. Each connection keeps its
+ * prepared statements in a {@link StatementCache}, so they survive from one borrow to the next.
+ */
+public class ConnectionPool implements AutoCloseable {
+  private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+  private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+  private static final long VALIDATION_BYPASS_MILLIS = 500;
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final String url;
+  private final String username;
+  private final String password;
+  private final long leakThresholdMillis;
+  private final int statementCacheSize;
+  private final Semaphore permits;
+  private final Deque<PooledConnection> idle = new ArrayDeque<>();
+  private final ThreadLocal<Lease> leases = new ThreadLocal<>();
+  private final Set<Lease> active = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService leakDetector;
+  private volatile boolean closed;
+
+  /**
+   * Constructs an empty ConnectionPool. Connections are opened on demand.
+   *
+   * @param url                 The JDBC URL of the database.
+   * @param username            The database username.
+   * @param password            The database password.
+   * @param maxSize             The maximum number of connections.
+   * @param leakThresholdMillis The time after which a borrowed connection is reported as leaked,
+   *                            or 0 to disable leak detection.
+   * @param statementCacheSize  The maximum number of prepared statements cached per connection,
+   *                            or 0 to disable the statement cache.
+   */
+  public ConnectionPool(String url, String username, String password, int maxSize,
+                        long leakThresholdMillis, int statementCacheSize) {
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.leakThresholdMillis = leakThresholdMillis;
+    this.statementCacheSize = statementCacheSize;
+    this.permits = new Semaphore(Math.max(1, maxSize), true);
+    if (leakThresholdMillis > 0) {
+      leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GeoCraft-ConnectionPool-LeakDetector");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long period = Math.max(1000, leakThresholdMillis / 2);
+      leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+    } else {
+      leakDetector = null;
+    }
+  }
+
+  /**
+   * Borrows a connection from the pool.
+   * The connection must be closed to give it back, ideally with a try-with-resources statement.
+   *
+   * @return The borrowed connection.
+   * @throws SQLException If the pool is closed, no connection is available in time, or a new
+   *                      connection cannot be opened.
+   */
+  public Connection borrow() throws SQLException {
+    if (closed) {
+      throw new SQLException("The connection pool is closed");
+    }
+    Lease lease = leases.get();
+    if (lease != null && !lease.released) {
+      Connection nested = handle(lease, !lease.pooled.connection.getAutoCommit());
+      lease.depth++;
+      return nested;
+    }
+    try {
+      if (!permits.tryAcquire(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("Timed out waiting for a database connection");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection", e);
+    }
+    try {
+      lease = new Lease(takeValidConnection(), leakThresholdMillis > 0);
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    leases.set(lease);
+    active.add(lease);
+    return handle(lease, false);
+  }
+
+  /**
+   * Closes the pool and its idle connections.
+   * Borrowed connections are closed when they are given back.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (leakDetector != null) {
+      leakDetector.shutdownNow();
+    }
+    synchronized (idle) {
+      idle.forEach(ConnectionPool::closeQuietly);
+      idle.clear();
+    }
+  }
+
+  /**
+   * Takes an idle connection that is still valid, or opens a new one.
+   * Connections used less than {@link #VALIDATION_BYPASS_MILLIS} ago are not checked again.
+   *
+   * @return The connection.
+   * @throws SQLException If a new connection cannot be opened.
+   */
+  private PooledConnection takeValidConnection() throws SQLException {
+    while (true) {
+      PooledConnection pooled;
+      synchronized (idle) {
+        pooled = idle.pollFirst();
+      }
+      if (pooled == null) {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        return new PooledConnection(connection, statementCacheSize > 0
+            ? new StatementCache(connection, statementCacheSize) : null);
+      }
+      if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_BYPASS_MILLIS) {
+        return pooled;
+      }
+      try {
+        if (pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+          return pooled;
+        }
+      } catch (SQLException e) {
+        LOGGER.log(Level.FINE, "Database connection validation failed", e);
+      }
+      closeQuietly(pooled);
+    }
+  }
+
+  /**
+   * Gives back the connection of a lease once every handle of the owning thread is closed.
+   *
+   * @param lease The lease.
+   */
+  private void release(Lease lease) {
+    if (--lease.depth > 0) {
+      return;
+    }
+    lease.released = true;
+    if (Thread.currentThread() == lease.owner) {
+      leases.remove();
+    }
+    active.remove(lease);
+    try {
+      if (closed || !resetState(lease.pooled.connection)) {
+        closeQuietly(lease.pooled);
+      } else {
+        lease.pooled.lastUsed = System.currentTimeMillis();
+        synchronized (idle) {
+          idle.addFirst(lease.pooled);
+        }
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Rolls back any unfinished transaction of a connection and restores auto-commit.
+   *
+   * @param connection The connection.
+   * @return True if the connection can be reused, false otherwise.
+   */
+  private static boolean resetState(Connection connection) {
+    try {
+      if (connection.isClosed()) {
+        return false;
+      }
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      return true;
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Could not reset a database connection", e);
+      return false;
+    }
+  }
+
+  /**
+   * Reports the connections borrowed for longer than the leak threshold.
+   */
+  private void detectLeaks() {
+    long now = System.currentTimeMillis();
+    for (Lease lease : active) {
+      if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+        lease.reported = true;
+        LOGGER.log(Level.WARNING, "A database connection has been borrowed by " + lease.owner.getName()
+            + " for more than " + leakThresholdMillis + " ms, it may have leaked", lease.origin);
+      }
+    }
+  }
+
+  /**
+   * Creates a handle on the connection of a lease.
+   * Closing the handle gives the connection back instead of closing it, and the handle cannot be
+   * used anymore once closed. Statements prepared from a SQL string alone, or with the generated
+   * keys flag, go through the statement cache of the connection. A handle joining the transaction
+   * of an outer handle ignores commits, rollbacks and auto-commit changes, so that the outer
+   * handle commits or rolls back the whole transaction.
+   *
+   * @param lease  The lease.
+   * @param joined Whether the handle joins the transaction of the connection.
+   * @return The connection handle.
+   */
+  private Connection handle(Lease lease, boolean joined) {
+    Connection connection = lease.pooled.connection;
+    StatementCache statements = lease.pooled.statements;
+    boolean[] handleClosed = {false};
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close" -> {
+              if (!handleClosed[0]) {
+                handleClosed[0] = true;
+                release(lease);
+              }
+              return null;
+            }
+            case "isClosed" -> {
+              return handleClosed[0] || connection.isClosed();
+            }
+            case "equals" -> {
+              return proxy == args[0];
+            }
+            case "hashCode" -> {
+              return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+              return "Pooled" + connection;
+            }
+            default -> {
+              if (handleClosed[0]) {
+                throw new SQLException("The connection has been given back to the pool");
+              }
+            }
+          }
+          if (joined && (method.getName().equals("commit") || method.getName().equals("rollback")
+              || method.getName().equals("setAutoCommit"))) {
+            return null;
+          }
+          if (statements != null && method.getName().equals("prepareStatement")) {
+            Class<?>[] types = method.getParameterTypes();
+            if (types.length == 1) {
+              return statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+            } else if (types.length == 2 && types[1] == int.class) {
+              return statements.prepare((String) args[0], (int) args[1]);
+            }
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  /**
+   * Closes a connection and its cached statements, ignoring errors.
+   *
+   * @param pooled The connection.
+   */
+  private static void closeQuietly(PooledConnection pooled) {
+    if (pooled.statements != null) {
+      pooled.statements.close();
+    }
+    try {
+      pooled.connection.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Could not close a database connection", e);
+    }
+  }
+
+  /**
+   * Physical connection, its cached statements and the time it was last given back.
+   */
+  private static class PooledConnection {
+    private final Connection connection;
+    private final StatementCache statements;
+    private long lastUsed = System.currentTimeMillis();
+
+    /**
+     * Constructs a PooledConnection.
+     *
+     * @param connection The physical connection.
+     * @param statements The statement cache of the connection, or null if disabled.
+     */
+    PooledConnection(Connection connection, StatementCache statements) {
+      this.connection = connection;
+      this.statements = statements;
+    }
+  }
+
+  /**
+   * Connection borrowed by a thread.
+   */
+  private static class Lease {
+    private final PooledConnection pooled;
+    private final Thread owner = Thread.currentThread();
+    private final long borrowedAt = System.currentTimeMillis();
+    private final Throwable origin;
+    private int depth = 1;
+    private boolean released;
+    private volatile boolean reported;
+
+    /**
+     * Constructs a Lease.
+     *
+     * @param pooled      The borrowed connection.
+     * @param trackOrigin Whether to capture the stack trace of the borrowing code, only needed to
+     *                    report leaks.
+     */
+    Lease(PooledConnection pooled, boolean trackOrigin) {
+      this.pooled = pooled;
+      this.origin = trackOrigin ? new Throwable("Connection borrowed here") : null;
+    }
+  }
+}
\ No newline at end of file
@@ -1,24 +1,20 @@
 package dev.lesroseaux.geocraft.data.connection;
 
 import dev.lesroseaux.geocraft.data.DatabaseOptions;
-import dev.lesroseaux.geocraft.data.dao.CityDao;
-import dev.lesroseaux.geocraft.data.dao.DistrictDao;
-import dev.lesroseaux.geocraft.data.dao.LocationToMapDao;
-import dev.lesroseaux.geocraft.data.dao.MapDao;
-import dev.lesroseaux.geocraft.data.dao.RegionDao;
-import dev.lesroseaux.geocraft.data.dao.RoadDao;
-import dev.lesroseaux.geocraft.data.dao.WorldDao;
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.migration.SchemaMigrator;
+import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Optional;
 
 /**
- * Singleton class for managing the database connection.
+ * Singleton class for managing the database connections.
+ * Connections are lent by a bounded pool, each operation borrowing its own connection.
  */
 public class DatabaseConnection {
   private static DatabaseConnection instance;
-  private Connection connection;
+  private ConnectionPool pool;
   private final DatabaseOptions options;
 
   /**
@@ -28,15 +24,7 @@ public class DatabaseConnection {
    */
   private DatabaseConnection(DatabaseOptions databaseOptions) {
     this.options = databaseOptions;
-    try {
-      connection = DriverManager.getConnection("jdbc:mysql://" + options.getHost() + ":"
-          + options.getPort() + "/" + options.getName() + "?autoReconnect=true",
-          options.getUsername(),
-          options.getPassword());
-      // Create tables
-    } catch (SQLException e) {
-      e.printStackTrace();
-    }
+    openConnection();
   }
 
   /**
@@ -54,62 +42,96 @@ public class DatabaseConnection {
       }
     }
     if (instance == null || !instance.options.equals(databaseOptions.get()) || !instance.isValidConnection()) {
+      if (instance != null) {
+        instance.closeConnection();
+      }
       instance = new DatabaseConnection(databaseOptions.get());
-      new WorldDao().createTable();
-      new RegionDao().createTable();
-      new CityDao().createTable();
-      new DistrictDao().createTable();
-      new RoadDao().createTable();
-      new LocationToMapDao().createTable();
-      new MapDao().createTable();
+      instance.migrate();
+      LocationHierarchyCache.getInstance().invalidate();
     }
     return instance;
   }
 
   /**
-   * Returns the current database connection.
+   * Brings the database schema up to date.
+   */
+  private void migrate() {
+    try (Connection connection = pool.borrow()) {
+      new SchemaMigrator(connection, options.getDialect()).migrate();
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Closes the connections of the singleton instance, if any.
+   */
+  public static void shutdown() {
+    if (instance != null) {
+      instance.closeConnection();
+      instance = null;
+    }
+  }
+
+  /**
+   * Gets the SQL dialect of the database.
+   *
+   * @return The SQL dialect.
+   */
+  public SqlDialect getDialect() {
+    return options.getDialect();
+  }
+
+  /**
+   * Borrows a database connection from the pool.
+   * The connection must be closed to give it back to the pool.
    *
-   * @return The current database connection.
+   * @return The borrowed database connection.
    */
   public Connection getConnection() {
-    return connection;
+    try {
+      return pool.borrow();
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
-   * Closes the current database connection.
+   * Closes the connection pool and its connections.
    */
   public void closeConnection() {
-    if (connection != null) {
-      try {
-        connection.close();
-      } catch (SQLException e) {
-        e.printStackTrace();
-      }
+    if (pool != null) {
+      pool.close();
     }
   }
 
   /**
-   * Opens a new database connection.
+   * Opens a new connection pool.
    */
   public void openConnection() {
-    try {
-      connection = DriverManager.getConnection("jdbc:mysql://" + options.getHost() + ":"
-          + options.getPort() + "/" + options.getName() + "?autoReconnect=true",
-          options.getUsername(),
-          options.getPassword());
-    } catch (SQLException e) {
-      e.printStackTrace();
+    closeConnection();
+    if (options.getDialect() == SqlDialect.SQLITE) {
+      File directory = new File(options.getFile()).getAbsoluteFile().getParentFile();
+      if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+        throw new RuntimeException("Could not create the database folder " + directory);
+      }
     }
+    pool = new ConnectionPool(options.getDialect().getUrl(options),
+        options.getUsername(),
+        options.getPassword(),
+        options.getPoolSize(),
+        options.getLeakDetectionThreshold(),
+        options.getStatementCacheSize());
   }
 
   /**
-   * Checks if the current database connection is valid.
+   * Checks if the database can be reached with a connection of the pool.
    *
    * @return True if the connection is valid, false otherwise.
    */
   public boolean isValidConnection() {
-    try {
-      return connection != null && !connection.isClosed() && connection.isValid(2);
+    try (Connection connection = pool.borrow()) {
+      return connection.isValid(2);
     } catch (SQLException e) {
       e.printStackTrace();
       return false;
@@ -0,0 +1,71 @@
+package dev.lesroseaux.geocraft.data.connection;
+
+import dev.lesroseaux.geocraft.data.DatabaseOptions;
+import java.util.Locale;
+
+/**
+ * SQL dialects of the supported database backends.
+ * MySQL is used by networks sharing a database between servers, SQLite by single servers, which
+ * keep the database in a local file and avoid the network round trip of every query.
+ */
+public enum SqlDialect {
+  MYSQL,
+  SQLITE;
+
+  private static final int SQLITE_BUSY_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * Gets the dialect of a backend from its name in the configuration.
+   *
+   * @param name The name of the backend, ignoring case.
+   * @return The dialect.
+   * @throws IllegalArgumentException If the backend is not supported.
+   */
+  public static SqlDialect fromName(String name) {
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IllegalArgumentException("Unsupported database type: " + name);
+    }
+  }
+
+  /**
+   * Gets the JDBC URL of the database described by the options.
+   *
+   * @param options The database options.
+   * @return The JDBC URL.
+   */
+  public String getUrl(DatabaseOptions options) {
+    return switch (this) {
+      case MYSQL -> "jdbc:mysql://" + options.getHost() + ":" + options.getPort() + "/"
+          + options.getName()
+          + "?autoReconnect=true&rewriteBatchedStatements=true&useServerPrepStmts=true";
+      // Foreign keys are disabled by default in SQLite, and the write-ahead log lets the pooled
+      // connections read while another one writes.
+      case SQLITE -> "jdbc:sqlite:" + options.getFile()
+          + "?foreign_keys=on&journal_mode=WAL&busy_timeout=" + SQLITE_BUSY_TIMEOUT_MILLIS;
+    };
+  }
+
+  /**
+   * Gets the column definition of an auto-incremented integer primary key.
+   *
+   * @return The column definition, without the column name.
+   */
+  public String getAutoIncrementPrimaryKey() {
+    return switch (this) {
+      case MYSQL -> "INT AUTO_INCREMENT PRIMARY KEY";
+      case SQLITE -> "INTEGER PRIMARY KEY AUTOINCREMENT";
+    };
+  }
+
+  /**
+   * Checks whether the driver returns the generated keys of every row of a batched insert.
+   * The SQLite driver only returns the key of the last row.
+   *
+   * @return True if the keys of every row are returned, false otherwise.
+   */
+  public boolean returnsBatchGeneratedKeys() {
+    return this == MYSQL;
+  }
+}
\ No newline at end of file
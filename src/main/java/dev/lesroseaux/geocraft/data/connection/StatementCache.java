@@ -0,0 +1,206 @@
+package dev.lesroseaux.geocraft.data.connection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Least recently used cache of the prepared statements of a pooled connection, keyed by SQL.
+ * Closing a cached statement gives it back to the cache instead of closing it, so the database
+ * parses each query once per connection. A statement is lent to one user at a time: preparing a
+ * query whose statement is already in use, for example from a nested DAO call, returns a plain
+ * statement instead. Statements evicted from the cache are closed once given back.
+ */
+class StatementCache {
+  private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+  private final Connection connection;
+  private final Map<Key, CachedStatement> statements;
+
+  /**
+   * Constructs an empty StatementCache.
+   *
+   * @param connection The physical connection preparing the statements.
+   * @param maxSize    The maximum number of cached statements.
+   */
+  StatementCache(Connection connection, int maxSize) {
+    this.connection = connection;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+        if (size() <= maxSize) {
+          return false;
+        }
+        CachedStatement cached = eldest.getValue();
+        cached.evicted = true;
+        if (!cached.inUse) {
+          closeQuietly(cached.statement);
+        }
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Prepares a statement, reusing the cached one when it is not in use.
+   *
+   * @param sql               The SQL of the statement.
+   * @param autoGeneratedKeys Whether the generated keys are returned, as defined by
+   *                          {@link Statement#RETURN_GENERATED_KEYS} and
+   *                          {@link Statement#NO_GENERATED_KEYS}.
+   * @return The statement, to close once used.
+   * @throws SQLException If the statement cannot be prepared.
+   */
+  PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+    Key key = new Key(sql, autoGeneratedKeys);
+    CachedStatement cached = statements.get(key);
+    if (cached != null && cached.inUse) {
+      return connection.prepareStatement(sql, autoGeneratedKeys);
+    }
+    if (cached == null) {
+      cached = new CachedStatement(connection.prepareStatement(sql, autoGeneratedKeys));
+      statements.put(key, cached);
+    }
+    cached.inUse = true;
+    return handle(key, cached);
+  }
+
+  /**
+   * Closes every cached statement.
+   */
+  void close() {
+    statements.values().forEach(cached -> closeQuietly(cached.statement));
+    statements.clear();
+  }
+
+  /**
+   * Gives a statement back to the cache.
+   * Its result sets are closed and its parameters cleared, and it is closed if it was evicted or
+   * cannot be reset.
+   *
+   * @param key    The key of the statement.
+   * @param cached The statement.
+   */
+  private void release(Key key, CachedStatement cached) {
+    cached.inUse = false;
+    try {
+      for (ResultSet resultSet : cached.resultSets) {
+        resultSet.close();
+      }
+      cached.statement.clearParameters();
+      cached.statement.clearBatch();
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Could not reset a prepared statement", e);
+      cached.evicted = true;
+      statements.remove(key, cached);
+    } finally {
+      cached.resultSets.clear();
+    }
+    if (cached.evicted) {
+      closeQuietly(cached.statement);
+    }
+  }
+
+  /**
+   * Creates a handle on a cached statement.
+   * Closing the handle gives the statement back instead of closing it, and the handle cannot be
+   * used anymore once closed.
+   *
+   * @param key    The key of the statement.
+   * @param cached The statement.
+   * @return The statement handle.
+   */
+  private PreparedStatement handle(Key key, CachedStatement cached) {
+    boolean[] handleClosed = {false};
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close" -> {
+              if (!handleClosed[0]) {
+                handleClosed[0] = true;
+                release(key, cached);
+              }
+              return null;
+            }
+            case "isClosed" -> {
+              return handleClosed[0] || cached.statement.isClosed();
+            }
+            case "equals" -> {
+              return proxy == args[0];
+            }
+            case "hashCode" -> {
+              return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+              return "Cached" + cached.statement;
+            }
+            default -> {
+              if (handleClosed[0]) {
+                throw new SQLException("The statement has been given back to the cache");
+              }
+            }
+          }
+          Object result;
+          try {
+            result = method.invoke(cached.statement, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+          if (result instanceof ResultSet resultSet) {
+            cached.resultSets.add(resultSet);
+          }
+          return result;
+        });
+  }
+
+  /**
+   * Closes a statement, ignoring errors.
+   *
+   * @param statement The statement.
+   */
+  private static void closeQuietly(Statement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Could not close a prepared statement", e);
+    }
+  }
+
+  /**
+   * Key of a cached statement.
+   *
+   * @param sql               The SQL of the statement.
+   * @param autoGeneratedKeys Whether the generated keys are returned.
+   */
+  private record Key(String sql, int autoGeneratedKeys) {
+  }
+
+  /**
+   * Cached statement and its state.
+   */
+  private static class CachedStatement {
+    private final PreparedStatement statement;
+    private final List<ResultSet> resultSets = new ArrayList<>();
+    private boolean inUse;
+    private boolean evicted;
+
+    /**
+     * Constructs a CachedStatement.
+     *
+     * @param statement The physical statement.
+     */
+    CachedStatement(PreparedStatement statement) {
+      this.statement = statement;
+    }
+  }
+}
\ No newline at end of file
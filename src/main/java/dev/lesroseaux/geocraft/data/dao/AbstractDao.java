@@ -1,8 +1,13 @@
 package dev.lesroseaux.geocraft.data.dao;
 
 import dev.lesroseaux.geocraft.data.connection.DatabaseConnection;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -11,13 +16,97 @@ import java.util.Optional;
  * @param <T> The type of the object that this DAO handles.
  */
 public abstract class AbstractDao<T> {
-  protected Connection connection;
+  /**
+   * The maximum number of rows sent to the database at once by a batched insert.
+   */
+  protected static final int BATCH_SIZE = 1000;
+
+  /**
+   * Borrows a connection from the database connection pool.
+   * Every operation borrows its own connection and must close it to give it back, so DAOs can be
+   * used from several threads at once. Nested calls on the same thread share the same connection.
+   *
+   * @return The borrowed connection.
+   */
+  protected Connection getConnection() {
+    return DatabaseConnection.getInstance(Optional.empty()).getConnection();
+  }
+
+  /**
+   * Gets the SQL dialect of the database.
+   *
+   * @return The SQL dialect.
+   */
+  protected SqlDialect getDialect() {
+    return DatabaseConnection.getInstance(Optional.empty()).getDialect();
+  }
+
+  /**
+   * Inserts objects with a single batched statement, in a single transaction.
+   * The statement is executed every {@link #BATCH_SIZE} objects to bound the memory used by the
+   * driver, and the generated IDs are read after each execution. Drivers that do not return the
+   * IDs of a whole batch execute the statement once per object instead, still in the single
+   * transaction.
+   *
+   * @param query   The insert query, with one row of parameters.
+   * @param objects The objects to insert.
+   * @param binder  The function binding the parameters of an object to the statement.
+   * @return The IDs of the inserted objects, in the iteration order of the collection.
+   * @throws SQLException If the insert fails, in which case nothing is inserted.
+   */
+  protected ArrayList<Integer> insertBatch(String query, Collection<T> objects,
+                                           StatementBinder<T> binder) throws SQLException {
+    ArrayList<Integer> ids = new ArrayList<>(objects.size());
+    if (objects.isEmpty()) {
+      return ids;
+    }
+    boolean batched = getDialect().returnsBatchGeneratedKeys();
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query,
+             PreparedStatement.RETURN_GENERATED_KEYS)) {
+      connection.setAutoCommit(false);
+      int pending = 0;
+      for (T obj : objects) {
+        binder.bind(statement, obj);
+        if (!batched) {
+          statement.executeUpdate();
+          readGeneratedKeys(statement, ids);
+          continue;
+        }
+        statement.addBatch();
+        if (++pending == BATCH_SIZE) {
+          statement.executeBatch();
+          readGeneratedKeys(statement, ids);
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        statement.executeBatch();
+        readGeneratedKeys(statement, ids);
+      }
+      if (ids.size() != objects.size()) {
+        throw new SQLException("Insert failed, " + ids.size() + " IDs obtained for "
+            + objects.size() + " rows.");
+      }
+      connection.commit();
+    }
+    return ids;
+  }
 
   /**
-   * Constructs an AbstractDao and initializes the database connection.
+   * Reads the IDs generated by the last execution of a statement.
+   *
+   * @param statement The statement.
+   * @param ids       The list to add the generated IDs to.
+   * @throws SQLException If the IDs cannot be read.
    */
-  public AbstractDao() {
-    this.connection = DatabaseConnection.getInstance(Optional.empty()).getConnection();
+  private static void readGeneratedKeys(PreparedStatement statement, ArrayList<Integer> ids)
+      throws SQLException {
+    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+      while (generatedKeys.next()) {
+        ids.add(generatedKeys.getInt(1));
+      }
+    }
   }
 
   /**
@@ -28,6 +117,22 @@ public abstract class AbstractDao<T> {
    */
   public abstract int insert(T obj);
 
+  /**
+   * Inserts several objects into the database.
+   * This default implementation inserts the objects one by one; DAOs of objects imported in bulk
+   * override it with a batched insert.
+   *
+   * @param objects The objects to insert.
+   * @return The IDs of the inserted objects, in the iteration order of the collection.
+   */
+  public ArrayList<Integer> insertAll(Collection<T> objects) {
+    ArrayList<Integer> ids = new ArrayList<>(objects.size());
+    for (T obj : objects) {
+      ids.add(insert(obj));
+    }
+    return ids;
+  }
+
   /**
    * Updates an object in the database.
    *
@@ -59,20 +164,30 @@ public abstract class AbstractDao<T> {
 
   /**
    * Gets the SQL query for creating the table.
+   * The query creates the table with the current schema, and does nothing if the table exists.
+   * The schema migrations bring the tables created by older versions up to date, so they must
+   * check the current schema first, as they also run on tables created with the current schema.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the table.
    */
-  public abstract String getTableCreationQuery();
+  public abstract String getTableCreationQuery(SqlDialect dialect);
 
   /**
-   * Creates the table in the database using the table creation query.
+   * Binds the parameters of an object to a prepared statement.
+   *
+   * @param <T> The type of the object.
    */
-  public void createTable() {
-    String query = getTableCreationQuery();
-    try {
-      connection.prepareStatement(query).executeUpdate();
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+  @FunctionalInterface
+  protected interface StatementBinder<T> {
+
+    /**
+     * Binds the parameters of an object to a prepared statement.
+     *
+     * @param statement The statement.
+     * @param obj       The object.
+     * @throws SQLException If a parameter cannot be set.
+     */
+    void bind(PreparedStatement statement, T obj) throws SQLException;
   }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.location.City;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,15 +25,30 @@ public class CityDao extends AbstractDao<City> {
    */
   @Override
   public int insert(City obj) {
-    String query = "INSERT INTO cities (name, region_id) VALUES (?, ?);";
-    try (PreparedStatement statement = connection.prepareStatement(query,
-        PreparedStatement.RETURN_GENERATED_KEYS)) {
-      connection.setAutoCommit(false);
-      statement.setString(1, obj.getCityName());
-      statement.setInt(2, obj.getRegionId());
-      int result = statement.executeUpdate();
-      connection.commit();
-      return result;
+    return insertAll(List.of(obj)).getFirst();
+  }
+
+  /**
+   * Inserts City objects into the database with a single batched statement, in a single
+   * transaction.
+   *
+   * @param objects The City objects to insert.
+   * @return The IDs of the inserted City objects, in the iteration order of the collection.
+   */
+  @Override
+  public ArrayList<Integer> insertAll(Collection<City> objects) {
+    String query = "INSERT INTO cities (name, region_id) VALUES (?, ?)";
+    try {
+      ArrayList<Integer> ids = insertBatch(query, objects, (statement, city) -> {
+        statement.setString(1, city.getCityName());
+        statement.setInt(2, city.getRegionId());
+      });
+      Iterator<Integer> id = ids.iterator();
+      for (City city : objects) {
+        city.setCityId(id.next());
+        LocationHierarchyCache.getInstance().put(city);
+      }
+      return ids;
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -41,13 +62,14 @@ public class CityDao extends AbstractDao<City> {
   @Override
   public void update(City obj) {
     String query = "UPDATE cities SET name = ? WHERE city_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getCityName());
       statement.setInt(2, obj.getCityId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -61,12 +83,13 @@ public class CityDao extends AbstractDao<City> {
   @Override
   public void delete(City obj) {
     String query = "DELETE FROM cities WHERE city_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query)) {
       connection.setAutoCommit(false);
       statement.setInt(1, obj.getCityId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().remove(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -80,30 +103,28 @@ public class CityDao extends AbstractDao<City> {
    */
   @Override
   public City getById(int id) {
-    String query = "SELECT * FROM cities WHERE city_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
-      statement.setInt(1, id);
-      ResultSet resultSet = statement.executeQuery();
-      if (resultSet.next()) {
-        return parseResult(resultSet);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getCity(id);
   }
 
   /**
-   * Retrieves all City objects from the database.
+   * Retrieves all City objects.
    *
    * @return A list of all City objects.
    */
   @Override
   public ArrayList<City> getAll() {
+    return LocationHierarchyCache.getInstance().getCities();
+  }
+
+  /**
+   * Loads all City objects from the database, bypassing the location hierarchy cache.
+   *
+   * @return A list of all City objects.
+   */
+  public ArrayList<City> loadAll() {
     String query = "SELECT * FROM cities;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query)) {
       ResultSet resultSet = statement.executeQuery();
       ArrayList<City> cities = new ArrayList<>();
       while (resultSet.next()) {
@@ -122,29 +143,18 @@ public class CityDao extends AbstractDao<City> {
    * @return A list of City objects in the specified region.
    */
   public ArrayList<City> getAllCitiesByRegionId(int regionId) {
-    String query = "SELECT * FROM cities WHERE region_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
-      statement.setInt(1, regionId);
-      ResultSet resultSet = statement.executeQuery();
-      ArrayList<City> cities = new ArrayList<>();
-      while (resultSet.next()) {
-        cities.add(parseResult(resultSet));
-      }
-      return cities;
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+    return LocationHierarchyCache.getInstance().getCitiesByRegionId(regionId);
   }
 
   /**
    * Gets the SQL query for creating the cities table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the cities table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS cities ("
-        + "city_id INT AUTO_INCREMENT PRIMARY KEY,"
+        + "city_id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "name VARCHAR(255) NOT NULL,"
         + "region_id INT NOT NULL,"
         + "FOREIGN KEY (region_id) REFERENCES regions(region_id)"
@@ -158,18 +168,7 @@ public class CityDao extends AbstractDao<City> {
    * @return The City object with the specified name.
    */
   public City getCityByName(@NotNull String cityName) {
-    String query = "SELECT * FROM cities WHERE name = ?;";
-    try {
-      var statement = connection.prepareStatement(query);
-      statement.setString(1, cityName);
-      var resultSet = statement.executeQuery();
-      if (resultSet.next()) {
-        return parseResult(resultSet);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getCityByName(cityName);
   }
 
   /**
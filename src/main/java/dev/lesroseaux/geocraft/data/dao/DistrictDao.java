@@ -1,9 +1,15 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.location.District;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,15 +25,30 @@ public class DistrictDao extends AbstractDao<District> {
    */
   @Override
   public int insert(District obj) {
-    String preparedStatement = "INSERT INTO districts (district_name, city_id) VALUES (?, ?)";
-    try (PreparedStatement statement = connection.prepareStatement(preparedStatement,
-        PreparedStatement.RETURN_GENERATED_KEYS)) {
-      connection.setAutoCommit(false);
-      statement.setString(1, obj.getDistrictName());
-      statement.setInt(2, obj.getCityId());
-      int result = statement.executeUpdate();
-      connection.commit();
-      return result;
+    return insertAll(List.of(obj)).getFirst();
+  }
+
+  /**
+   * Inserts District objects into the database with a single batched statement, in a single
+   * transaction.
+   *
+   * @param objects The District objects to insert.
+   * @return The IDs of the inserted District objects, in the iteration order of the collection.
+   */
+  @Override
+  public ArrayList<Integer> insertAll(Collection<District> objects) {
+    String query = "INSERT INTO districts (district_name, city_id) VALUES (?, ?)";
+    try {
+      ArrayList<Integer> ids = insertBatch(query, objects, (statement, district) -> {
+        statement.setString(1, district.getDistrictName());
+        statement.setInt(2, district.getCityId());
+      });
+      Iterator<Integer> id = ids.iterator();
+      for (District district : objects) {
+        district.setDistrictId(id.next());
+        LocationHierarchyCache.getInstance().put(district);
+      }
+      return ids;
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -41,13 +62,14 @@ public class DistrictDao extends AbstractDao<District> {
   @Override
   public void update(District obj) {
     String preparedStatement = "UPDATE districts SET district_name = ? WHERE district_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getDistrictName());
       statement.setInt(2, obj.getDistrictId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -61,12 +83,13 @@ public class DistrictDao extends AbstractDao<District> {
   @Override
   public void delete(District obj) {
     String preparedStatement = "DELETE FROM districts WHERE district_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
       statement.setInt(1, obj.getDistrictId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().remove(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -80,30 +103,28 @@ public class DistrictDao extends AbstractDao<District> {
    */
   @Override
   public District getById(int id) {
-    String preparedStatement = "SELECT * FROM districts WHERE district_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
-      statement.setInt(1, id);
-      ResultSet result = statement.executeQuery();
-      District district = new District(result.getInt("district_id"),
-          result.getString("district_name"),
-          result.getInt("city_id"));
-      return district;
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+    return LocationHierarchyCache.getInstance().getDistrict(id);
   }
 
   /**
-   * Retrieves all District objects from the database.
+   * Retrieves all District objects.
    *
    * @return A list of all District objects.
    */
   @Override
   public ArrayList<District> getAll() {
+    return LocationHierarchyCache.getInstance().getDistricts();
+  }
+
+  /**
+   * Loads all District objects from the database, bypassing the location hierarchy cache.
+   *
+   * @return A list of all District objects.
+   */
+  public ArrayList<District> loadAll() {
     String preparedStatement = "SELECT * FROM districts";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       ResultSet result = statement.executeQuery();
       ArrayList<District> districts = new ArrayList<>();
       while (result.next()) {
@@ -125,32 +146,18 @@ public class DistrictDao extends AbstractDao<District> {
    * @return A list of District objects in the specified city.
    */
   public ArrayList<District> getAllDistrictsByCityId(int cityId) {
-    String preparedStatement = "SELECT * FROM districts WHERE city_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
-      statement.setInt(1, cityId);
-      ResultSet result = statement.executeQuery();
-      ArrayList<District> districts = new ArrayList<>();
-      while (result.next()) {
-        District district = new District(result.getInt("district_id"),
-            result.getString("district_name"),
-            result.getInt("city_id"));
-        districts.add(district);
-      }
-      return districts;
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+    return LocationHierarchyCache.getInstance().getDistrictsByCityId(cityId);
   }
 
   /**
    * Gets the SQL query for creating the districts table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the districts table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS districts ("
-        + "district_id INT AUTO_INCREMENT PRIMARY KEY,"
+        + "district_id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "district_name VARCHAR(255) NOT NULL,"
         + "city_id INT NOT NULL,"
         + "FOREIGN KEY (city_id) REFERENCES cities(city_id)"
@@ -164,19 +171,6 @@ public class DistrictDao extends AbstractDao<District> {
    * @return The District object with the specified name.
    */
   public District getDistrictByName(@NotNull String districtName) {
-    String preparedStatement = "SELECT * FROM districts WHERE LOWER(district_name) = LOWER(?)";
-    try (PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
-      statement.setString(1, districtName);
-      try (ResultSet resultSet = statement.executeQuery()) {
-        if (resultSet.next()) {
-          return new District(resultSet.getInt("district_id"),
-              resultSet.getString("district_name"),
-              resultSet.getInt("city_id"));
-        }
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getDistrictByName(districtName);
   }
 }
\ No newline at end of file
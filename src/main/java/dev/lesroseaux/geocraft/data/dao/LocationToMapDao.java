@@ -1,13 +1,16 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.LocationToMap;
 import dev.lesroseaux.geocraft.models.location.City;
 import dev.lesroseaux.geocraft.models.location.District;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
 import dev.lesroseaux.geocraft.models.location.Region;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.UUID;
@@ -27,7 +30,8 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   public int insert(LocationToMap obj) {
     String sql = "INSERT INTO location_to_map (world_id, region_id, city_id, district_id) "
         + "VALUES (?, ?, ?, ?)";
-    try (PreparedStatement statement = connection.prepareStatement(sql,
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql,
         PreparedStatement.RETURN_GENERATED_KEYS)) {
       if (obj.getLocation() instanceof GeoCraftWorld) {
         statement.setString(1, obj.getId().toString());
@@ -75,7 +79,8 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   @Override
   public void update(LocationToMap obj) {
     String sql = "UPDATE location_to_map SET world_id = ?, region_id = ?, city_id = ?, district_id = ? WHERE id = ?";
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getId() != null ? obj.getId().toString() : null);
       statement.setObject(2, obj.getLocation().getId() != 0 ? obj.getLocation().getId() : 0, java.sql.Types.INTEGER);
@@ -85,18 +90,7 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
       statement.executeUpdate();
       connection.commit();
     } catch (Exception e) {
-      try {
-        connection.rollback();
-      } catch (Exception rollbackEx) {
-        throw new RuntimeException(rollbackEx);
-      }
       throw new RuntimeException(e);
-    } finally {
-      try {
-        connection.setAutoCommit(true);
-      } catch (Exception autoCommitEx) {
-        throw new RuntimeException(autoCommitEx);
-      }
     }
   }
 
@@ -108,17 +102,13 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   @Override
   public void delete(LocationToMap obj) {
     String sql = "DELETE FROM location_to_map WHERE id = ?";
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       connection.setAutoCommit(false);
       statement.setInt(1, obj.getDatabaseId());
       statement.executeUpdate();
       connection.commit();
     } catch (Exception e) {
-      try {
-        connection.rollback();
-      } catch (Exception rollbackEx) {
-        throw new RuntimeException(rollbackEx);
-      }
       throw new RuntimeException(e);
     }
   }
@@ -132,7 +122,8 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   @Override
   public LocationToMap getById(int id) {
     String sql = "SELECT * FROM location_to_map WHERE id = ?";
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       statement.setInt(1, id);
       ResultSet rs = statement.executeQuery();
       if (rs.next()) {
@@ -155,7 +146,8 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   @Override
   public ArrayList<LocationToMap> getAll() {
     String sql = "SELECT * FROM location_to_map";
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       ArrayList<LocationToMap> locationToMaps = new ArrayList<>();
       ResultSet rs = statement.executeQuery();
       while (rs.next()) {
@@ -176,7 +168,8 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
   public LocationToMap getByPlayableZone(LocationToMap zone) {
     String sql = "SELECT * FROM location_to_map WHERE world_id = ? OR region_id = ? "
         + "OR city_id = ? OR district_id = ?";
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       statement.setString(1, zone.getLocation() instanceof GeoCraftWorld ? zone.getId().toString() : null);
       statement.setInt(2, zone.getLocation() instanceof Region ? zone.getLocation().getId() : 0);
       statement.setInt(3, zone.getLocation() instanceof City ? zone.getLocation().getId() : 0);
@@ -225,33 +218,49 @@ public class LocationToMapDao extends AbstractDao<LocationToMap> {
    */
   private LocationToMap parseResult(ResultSet rs) {
     try {
-      LocationToMap locationToMap = new LocationToMap();
-      locationToMap.setDatabaseId(rs.getInt("id"));
-      if (rs.getString("world_id") != null) {
-        locationToMap.setLocation(new WorldDao().getByUuid(
-            UUID.fromString(rs.getString("world_id"))));
-      } else if (rs.getInt("region_id") != 0) {
-        locationToMap.setLocation(new RegionDao().getById(rs.getInt("region_id")));
-      } else if (rs.getInt("city_id") != 0) {
-        locationToMap.setLocation(new CityDao().getById(rs.getInt("city_id")));
-      } else if (rs.getInt("district_id") != 0) {
-        locationToMap.setLocation(new DistrictDao().getById(rs.getInt("district_id")));
-      }
-      return locationToMap;
+      return parseLocation(rs, rs.getInt("id"));
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Parses the zone columns of a ResultSet into a LocationToMap object.
+   * The zone is resolved through the location hierarchy cache, so rows joined with the
+   * location_to_map table are parsed without any further query.
+   *
+   * @param rs         The ResultSet to parse, positioned on a row with the world_id, region_id,
+   *                   city_id and district_id columns.
+   * @param databaseId The ID of the LocationToMap.
+   * @return The parsed LocationToMap object.
+   * @throws SQLException If a column cannot be read.
+   */
+  static LocationToMap parseLocation(ResultSet rs, int databaseId) throws SQLException {
+    LocationToMap locationToMap = new LocationToMap();
+    locationToMap.setDatabaseId(databaseId);
+    if (rs.getString("world_id") != null) {
+      locationToMap.setLocation(new WorldDao().getByUuid(
+          UUID.fromString(rs.getString("world_id"))));
+    } else if (rs.getInt("region_id") != 0) {
+      locationToMap.setLocation(new RegionDao().getById(rs.getInt("region_id")));
+    } else if (rs.getInt("city_id") != 0) {
+      locationToMap.setLocation(new CityDao().getById(rs.getInt("city_id")));
+    } else if (rs.getInt("district_id") != 0) {
+      locationToMap.setLocation(new DistrictDao().getById(rs.getInt("district_id")));
+    }
+    return locationToMap;
+  }
+
   /**
    * Gets the SQL query for creating the location\_to\_map table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the location\_to\_map table.
    */
   @Override
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS location_to_map ("
-        + "id INT AUTO_INCREMENT PRIMARY KEY,"
+        + "id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "world_id VARCHAR(36),"
         + "region_id INT,"
         + "city_id INT,"
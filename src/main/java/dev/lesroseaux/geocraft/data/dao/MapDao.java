@@ -1,5 +1,6 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.LocationToMap;
 import dev.lesroseaux.geocraft.models.game.GeocraftMap;
 import dev.lesroseaux.geocraft.models.location.City;
@@ -7,15 +8,23 @@ import dev.lesroseaux.geocraft.models.location.District;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
 import dev.lesroseaux.geocraft.models.location.Region;
+import dev.lesroseaux.geocraft.models.location.Road;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.UUID;
 
 /**
  * Data Access Object (DAO) for the GeocraftMap entity.
+ * Maps are always read joined with their location_to_map row, and their zone is resolved through
+ * the location hierarchy cache, so loading any number of maps takes a single query.
  */
 public class MapDao extends AbstractDao<GeocraftMap> {
+  private static final String SELECT_MAPS = "SELECT Map.*, location_to_map.world_id,"
+      + " location_to_map.region_id, location_to_map.city_id, location_to_map.district_id"
+      + " FROM Map JOIN location_to_map ON Map.location_id = location_to_map.id";
 
   /**
    * Inserts a GeocraftMap object into the database.
@@ -27,7 +36,8 @@ public class MapDao extends AbstractDao<GeocraftMap> {
   public int insert(GeocraftMap obj) {
     String sql = "INSERT INTO Map (min_x, min_z, max_x, max_z, scale, location_id) "
         + "VALUES (?, ?, ?, ?, ?, ?)";
-    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement stmt = connection.prepareStatement(sql)) {
       stmt.setInt(1, obj.getMinX());
       stmt.setInt(2, obj.getMinZ());
       stmt.setInt(3, obj.getMaxX());
@@ -49,7 +59,8 @@ public class MapDao extends AbstractDao<GeocraftMap> {
   @Override
   public void update(GeocraftMap obj) {
     String sql = "UPDATE Map SET min_x = ?, min_z = ?, max_x = ?, max_z = ?, scale = ?, location_id = ? WHERE id = ?";
-    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement stmt = connection.prepareStatement(sql)) {
       stmt.setInt(1, obj.getMinX());
       stmt.setInt(2, obj.getMinZ());
       stmt.setInt(3, obj.getMaxX());
@@ -71,7 +82,8 @@ public class MapDao extends AbstractDao<GeocraftMap> {
   @Override
   public void delete(GeocraftMap obj) {
     String sql = "DELETE FROM Map WHERE id = ?";
-    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement stmt = connection.prepareStatement(sql)) {
       stmt.setInt(1, obj.getId());
       stmt.executeUpdate();
     } catch (SQLException e) {
@@ -87,8 +99,9 @@ public class MapDao extends AbstractDao<GeocraftMap> {
    */
   @Override
   public GeocraftMap getById(int id) {
-    String sql = "SELECT * FROM Map WHERE id = ?";
-    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    String sql = SELECT_MAPS + " WHERE Map.id = ?";
+    try (Connection connection = getConnection();
+         PreparedStatement stmt = connection.prepareStatement(sql)) {
       stmt.setInt(1, id);
       ResultSet rs = stmt.executeQuery();
       if (rs.next()) {
@@ -107,32 +120,52 @@ public class MapDao extends AbstractDao<GeocraftMap> {
    * @return The GeocraftMap object, or null if not found.
    */
   public GeocraftMap getByPlayableZone(PlayableZone zone) {
-    String sql = "SELECT * FROM Map WHERE location_id = (SELECT id from location_to_map " +
-        "WHERE world_id = ? AND region_id = ? AND city_id = ? AND district_id = ?)";
-    try {
-      PreparedStatement statement = connection.prepareStatement(sql);
-      if (zone instanceof GeoCraftWorld) {
-        statement.setString(1, ((GeoCraftWorld) zone).getWorldId().toString());
-        statement.setNull(2, java.sql.Types.INTEGER);
-        statement.setNull(3, java.sql.Types.INTEGER);
-        statement.setNull(4, java.sql.Types.INTEGER);
-      } else if (zone instanceof Region) {
-        statement.setNull(1, java.sql.Types.VARCHAR);
-        statement.setObject(2, zone.getId(), java.sql.Types.INTEGER);
-        statement.setNull(3, java.sql.Types.INTEGER);
-        statement.setNull(4, java.sql.Types.INTEGER);
-      } else if (zone instanceof City) {
-        statement.setNull(1, java.sql.Types.VARCHAR);
-        statement.setNull(2, java.sql.Types.INTEGER);
-        statement.setObject(3, zone.getId(), java.sql.Types.INTEGER);
-        statement.setNull(4, java.sql.Types.INTEGER);
-      } else if (zone instanceof District) {
-        statement.setNull(1, java.sql.Types.VARCHAR);
-        statement.setNull(2, java.sql.Types.INTEGER);
-        statement.setNull(3, java.sql.Types.INTEGER);
-        statement.setObject(4, zone.getId(), java.sql.Types.INTEGER);
+    String column;
+    if (zone instanceof GeoCraftWorld) {
+      column = "world_id";
+    } else if (zone instanceof Region) {
+      column = "region_id";
+    } else if (zone instanceof City) {
+      column = "city_id";
+    } else if (zone instanceof District) {
+      column = "district_id";
+    } else {
+      return null;
+    }
+    String sql = SELECT_MAPS + " WHERE location_to_map." + column + " = ?";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
+      if (zone instanceof GeoCraftWorld world) {
+        statement.setString(1, world.getWorldId().toString());
+      } else {
+        statement.setInt(1, zone.getId());
+      }
+      ResultSet rs = statement.executeQuery();
+      if (rs.next()) {
+        return parseResult(rs);
       }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
+    return null;
+  }
 
+  /**
+   * Retrieves the GeocraftMap object of the world containing a PlayableZone.
+   * The world is found through the location hierarchy cache, so a single query is made.
+   *
+   * @param zone The PlayableZone.
+   * @return The GeocraftMap object of its world, or null if not found.
+   */
+  public GeocraftMap getParentMap(PlayableZone zone) {
+    UUID worldId = getWorldId(zone);
+    if (worldId == null) {
+      return null;
+    }
+    String sql = SELECT_MAPS + " WHERE location_to_map.world_id = ?";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, worldId.toString());
       ResultSet rs = statement.executeQuery();
       if (rs.next()) {
         return parseResult(rs);
@@ -143,6 +176,27 @@ public class MapDao extends AbstractDao<GeocraftMap> {
     return null;
   }
 
+  /**
+   * Gets the UUID of the world containing a PlayableZone.
+   *
+   * @param zone The PlayableZone.
+   * @return The UUID of its world, or null if the zone or one of its parents is unknown.
+   */
+  private static UUID getWorldId(PlayableZone zone) {
+    if (zone instanceof GeoCraftWorld world) {
+      return world.getWorldId();
+    } else if (zone instanceof Region region) {
+      return region.getWorldId();
+    } else if (zone instanceof City city) {
+      return getWorldId(new RegionDao().getById(city.getRegionId()));
+    } else if (zone instanceof District district) {
+      return getWorldId(new CityDao().getById(district.getCityId()));
+    } else if (zone instanceof Road road) {
+      return getWorldId(new DistrictDao().getById(road.getDistrictId()));
+    }
+    return null;
+  }
+
   /**
    * Retrieves a GeocraftMap object by its associated LocationToMap ID.
    *
@@ -150,10 +204,9 @@ public class MapDao extends AbstractDao<GeocraftMap> {
    * @return The GeocraftMap object, or null if not found.
    */
   public GeocraftMap getByLocationToMapId(LocationToMap locationToMap) {
-    String sql = "SELECT * FROM Map WHERE location_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(sql);
-      connection.setAutoCommit(false);
+    String sql = SELECT_MAPS + " WHERE Map.location_id = ?";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(sql)) {
       statement.setInt(1, locationToMap.getDatabaseId());
       ResultSet resultSet = statement.executeQuery();
       if (resultSet.next()) {
@@ -185,10 +238,8 @@ public class MapDao extends AbstractDao<GeocraftMap> {
         geocraftMap.setScale(rs.getInt("scale"));
       }
       if (rs.getInt("location_id") != 0) {
-        LocationToMap locationToMap = new LocationToMapDao().getById(rs.getInt("location_id"));
-        if (locationToMap != null) {
-          geocraftMap.setLocationToMap(locationToMap);
-        }
+        geocraftMap.setLocationToMap(
+            LocationToMapDao.parseLocation(rs, rs.getInt("location_id")));
       }
     } catch (SQLException e) {
       throw new RuntimeException(e);
@@ -203,9 +254,10 @@ public class MapDao extends AbstractDao<GeocraftMap> {
    */
   @Override
   public ArrayList<GeocraftMap> getAll() {
-    String sql = "SELECT * FROM Map";
+    String sql = SELECT_MAPS;
     ArrayList<GeocraftMap> geocraftMaps = new ArrayList<>();
-    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    try (Connection connection = getConnection();
+         PreparedStatement stmt = connection.prepareStatement(sql)) {
       ResultSet rs = stmt.executeQuery();
       while (rs.next()) {
         geocraftMaps.add(parseResult(rs));
@@ -219,11 +271,12 @@ public class MapDao extends AbstractDao<GeocraftMap> {
   /**
    * Returns the SQL query for creating the Map table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the Map table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS Map ("
-        + "    id INT AUTO_INCREMENT NOT NULL PRIMARY KEY,"
+        + "    id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "    min_x INT NOT NULL,"
         + "    min_z INT NOT NULL,"
         + "    max_x INT NOT NULL,"
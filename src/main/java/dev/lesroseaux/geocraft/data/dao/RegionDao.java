@@ -1,10 +1,16 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.location.Region;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
 import org.jetbrains.annotations.NotNull;
 
@@ -21,15 +27,30 @@ public class RegionDao extends AbstractDao<Region> {
    */
   @Override
   public int insert(Region obj) {
-    String preparedStatement = "INSERT INTO regions (region_name, world_id) VALUES (?, ?)";
-    try (PreparedStatement statement = connection.prepareStatement(preparedStatement,
-        PreparedStatement.RETURN_GENERATED_KEYS)) {
-      connection.setAutoCommit(false);
-      statement.setString(1, obj.getRegionName());
-      statement.setString(2, obj.getWorldId().toString());
-      int result = statement.executeUpdate();
-      connection.commit();
-      return result;
+    return insertAll(List.of(obj)).getFirst();
+  }
+
+  /**
+   * Inserts Region objects into the database with a single batched statement, in a single
+   * transaction.
+   *
+   * @param objects The Region objects to insert.
+   * @return The IDs of the inserted Region objects, in the iteration order of the collection.
+   */
+  @Override
+  public ArrayList<Integer> insertAll(Collection<Region> objects) {
+    String query = "INSERT INTO regions (region_name, world_id) VALUES (?, ?)";
+    try {
+      ArrayList<Integer> ids = insertBatch(query, objects, (statement, region) -> {
+        statement.setString(1, region.getRegionName());
+        statement.setString(2, region.getWorldId().toString());
+      });
+      Iterator<Integer> id = ids.iterator();
+      for (Region region : objects) {
+        region.setRegionId(id.next());
+        LocationHierarchyCache.getInstance().put(region);
+      }
+      return ids;
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -43,10 +64,14 @@ public class RegionDao extends AbstractDao<Region> {
   @Override
   public void update(Region obj) {
     String preparedStatement = "UPDATE regions SET region_name = ? WHERE region_id = ?";
-    try {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
-      connection.prepareStatement(preparedStatement).executeUpdate();
+      statement.setString(1, obj.getRegionName());
+      statement.setInt(2, obj.getRegionId());
+      statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -60,10 +85,13 @@ public class RegionDao extends AbstractDao<Region> {
   @Override
   public void delete(Region obj) {
     String preparedStatement = "DELETE FROM regions WHERE region_id = ?";
-    try {
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
-      connection.prepareStatement(preparedStatement).executeUpdate();
+      statement.setInt(1, obj.getRegionId());
+      statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().remove(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -77,30 +105,28 @@ public class RegionDao extends AbstractDao<Region> {
    */
   @Override
   public Region getById(int id) {
-    String preparedStatement = "SELECT * FROM regions WHERE region_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
-      statement.setInt(1, id);
-      ResultSet resultSet = statement.executeQuery();
-      if (resultSet.next()) {
-        return parseResult(resultSet);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getRegion(id);
   }
 
   /**
-   * Retrieves all Region objects from the database.
+   * Retrieves all Region objects.
    *
    * @return A list of all Region objects.
    */
   @Override
   public ArrayList<Region> getAll() {
+    return LocationHierarchyCache.getInstance().getRegions();
+  }
+
+  /**
+   * Loads all Region objects from the database, bypassing the location hierarchy cache.
+   *
+   * @return A list of all Region objects.
+   */
+  public ArrayList<Region> loadAll() {
     String preparedStatement = "SELECT * FROM regions";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       ResultSet resultSet = statement.executeQuery();
       ArrayList<Region> regions = new ArrayList<>();
       while (resultSet.next()) {
@@ -119,7 +145,7 @@ public class RegionDao extends AbstractDao<Region> {
    * @return A list of Region objects in the specified world.
    */
   public ArrayList<Region> getAllRegionsByWorldId(UUID worldId) {
-    return null;
+    return LocationHierarchyCache.getInstance().getRegionsByWorldId(worldId);
   }
 
   /**
@@ -143,11 +169,12 @@ public class RegionDao extends AbstractDao<Region> {
   /**
    * Gets the SQL query for creating the regions table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the regions table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS regions ("
-        + "region_id INT AUTO_INCREMENT PRIMARY KEY,"
+        + "region_id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "region_name VARCHAR(255) NOT NULL,"
         + "world_id VARCHAR(36) NOT NULL,"
         + "FOREIGN KEY (world_id) REFERENCES worlds(world_id)"
@@ -161,17 +188,6 @@ public class RegionDao extends AbstractDao<Region> {
    * @return The Region object with the specified name.
    */
   public Region getRegionByName(@NotNull String regionName) {
-    String preparedStatement = "SELECT * FROM regions WHERE LOWER(region_name) = LOWER(?)";
-    try (PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
-      statement.setString(1, regionName);
-      try (ResultSet resultSet = statement.executeQuery()) {
-        if (resultSet.next()) {
-          return parseResult(resultSet);
-        }
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getRegionByName(regionName);
   }
 }
\ No newline at end of file
@@ -1,17 +1,40 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
+import dev.lesroseaux.geocraft.models.location.City;
+import dev.lesroseaux.geocraft.models.location.District;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
+import dev.lesroseaux.geocraft.models.location.PlayableZone;
+import dev.lesroseaux.geocraft.models.location.Region;
 import dev.lesroseaux.geocraft.models.location.Road;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.Statement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 
 /**
  * Data Access Object (DAO) for the Road entity.
+ * Roads are always read with the world of their region, so loading every road takes a single
+ * query. The bounding box of every road on the X and Z axes is stored next to its points and
+ * indexed, so the roads of an area are found without reading the whole table.
  */
 public class RoadDao extends AbstractDao<Road> {
+  private static final String ROAD_JOINS = " JOIN districts ON road.district_id = districts.district_id"
+      + " JOIN cities ON districts.city_id = cities.city_id"
+      + " JOIN regions ON cities.region_id = regions.region_id";
+  private static final String SELECT_ROADS = "SELECT road.*, regions.world_id FROM road" + ROAD_JOINS;
+  private static final double MAX_SEARCH_RADIUS = 30_000_000;
 
   /**
    * Inserts a Road object into the database.
@@ -21,23 +44,40 @@ public class RoadDao extends AbstractDao<Road> {
    */
   @Override
   public int insert(Road obj) {
-    String preparedStatement = "INSERT INTO road (zone_name, district_id, zone_point1_x, "
-        + "zone_point1_y, zone_point1_z, zone_point2_x, zone_point2_y, zone_point2_z)"
-        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?);";
-    try (PreparedStatement statement = connection.prepareStatement(preparedStatement,
-        PreparedStatement.RETURN_GENERATED_KEYS)) {
-      connection.setAutoCommit(false);
-      statement.setString(1, obj.getZoneName());
-      statement.setInt(2, obj.getDistrictId());
-      statement.setDouble(3, obj.getZonePoint1().getX());
-      statement.setDouble(4, obj.getZonePoint1().getY());
-      statement.setDouble(5, obj.getZonePoint1().getZ());
-      statement.setDouble(6, obj.getZonePoint2().getX());
-      statement.setDouble(7, obj.getZonePoint2().getY());
-      statement.setDouble(8, obj.getZonePoint2().getZ());
-      int result = statement.executeUpdate();
-      connection.commit();
-      return result;
+    return insertAll(List.of(obj)).getFirst();
+  }
+
+  /**
+   * Inserts Road objects into the database with a single batched statement, in a single
+   * transaction.
+   *
+   * @param objects The Road objects to insert.
+   * @return The IDs of the inserted Road objects, in the iteration order of the collection.
+   */
+  @Override
+  public ArrayList<Integer> insertAll(Collection<Road> objects) {
+    String query = "INSERT INTO road (zone_name, district_id, zone_point1_x, "
+        + "zone_point1_y, zone_point1_z, zone_point2_x, zone_point2_y, zone_point2_z,"
+        + " min_x, max_x, min_z, max_z)"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    try {
+      ArrayList<Integer> ids = insertBatch(query, objects, (statement, road) -> {
+        statement.setString(1, road.getZoneName());
+        statement.setInt(2, road.getDistrictId());
+        statement.setDouble(3, road.getZonePoint1().getX());
+        statement.setDouble(4, road.getZonePoint1().getY());
+        statement.setDouble(5, road.getZonePoint1().getZ());
+        statement.setDouble(6, road.getZonePoint2().getX());
+        statement.setDouble(7, road.getZonePoint2().getY());
+        statement.setDouble(8, road.getZonePoint2().getZ());
+        setBoundingBox(statement, 9, road);
+      });
+      Iterator<Integer> id = ids.iterator();
+      for (Road road : objects) {
+        LocationHierarchyCache.getInstance().put(new Road(id.next(), road.getZonePoint1(),
+            road.getZonePoint2(), road.getZoneName(), road.getDistrictId()));
+      }
+      return ids;
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -52,9 +92,9 @@ public class RoadDao extends AbstractDao<Road> {
   public void update(Road obj) {
     String preparedStatement = "UPDATE road SET zone_name = ?, zone_point1_x = ?,"
         + " zone_point1_y = ?, zone_point1_z = ?, zone_point2_x = ?, zone_point2_y = ?,"
-        + " zone_point2_z = ? WHERE zone_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+        + " zone_point2_z = ?, min_x = ?, max_x = ?, min_z = ?, max_z = ? WHERE zone_id = ?;";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getZoneName());
       statement.setDouble(2, obj.getZonePoint1().getX());
@@ -63,9 +103,11 @@ public class RoadDao extends AbstractDao<Road> {
       statement.setDouble(5, obj.getZonePoint2().getX());
       statement.setDouble(6, obj.getZonePoint2().getY());
       statement.setDouble(7, obj.getZonePoint2().getZ());
-      statement.setInt(8, obj.getZoneId());
+      setBoundingBox(statement, 8, obj);
+      statement.setInt(12, obj.getZoneId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -79,12 +121,13 @@ public class RoadDao extends AbstractDao<Road> {
   @Override
   public void delete(Road obj) {
     String preparedStatement = "DELETE FROM road WHERE zone_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedStatement);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedStatement)) {
       connection.setAutoCommit(false);
       statement.setInt(1, obj.getZoneId());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().remove(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -98,34 +141,136 @@ public class RoadDao extends AbstractDao<Road> {
    */
   @Override
   public Road getById(int id) {
-    String query = "SELECT * FROM road WHERE zone_id = ?;";
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
-      statement.setInt(1, id);
-      ResultSet resultSet = statement.executeQuery();
-      if (resultSet.next()) {
-        return parseResult(resultSet);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getRoad(id);
   }
 
   /**
-   * Retrieves all Road objects from the database.
+   * Retrieves all Road objects.
    *
    * @return A list of all Road objects.
    */
   @Override
   public ArrayList<Road> getAll() {
-    String query = "SELECT * FROM road;";
+    return LocationHierarchyCache.getInstance().getRoads();
+  }
+
+  /**
+   * Retrieves all Road objects of a world.
+   *
+   * @param worldId The UUID of the world.
+   * @return A list of Road objects in the specified world.
+   */
+  public ArrayList<Road> getZonesByWorldId(UUID worldId) {
+    return LocationHierarchyCache.getInstance().getRoadsByWorldId(worldId);
+  }
+
+  /**
+   * Retrieves all Road objects by their region ID.
+   *
+   * @param regionId The region ID to filter by.
+   * @return A list of Road objects in the specified region.
+   */
+  public ArrayList<Road> getZonesByRegionId(int regionId) {
+    return LocationHierarchyCache.getInstance().getRoadsByRegionId(regionId);
+  }
+
+  /**
+   * Retrieves all Road objects by their city ID.
+   *
+   * @param cityId The city ID to filter by.
+   * @return A list of Road objects in the specified city.
+   */
+  public ArrayList<Road> getZonesByCityId(int cityId) {
+    return LocationHierarchyCache.getInstance().getRoadsByCityId(cityId);
+  }
+
+  /**
+   * Retrieves all Road objects by their district ID.
+   *
+   * @param districtId The district ID to filter by.
+   * @return A list of Road objects in the specified district.
+   */
+  public ArrayList<Road> getZonesByDistrictId(int districtId) {
+    return LocationHierarchyCache.getInstance().getRoadsByDistrictId(districtId);
+  }
+
+  /**
+   * Retrieves the Road objects of a world whose bounding box intersects a rectangle.
+   * The roads are looked up with the bounding box indexes, then resolved through the location
+   * hierarchy cache.
+   *
+   * @param worldId The UUID of the world.
+   * @param minX    The minimum X coordinate of the rectangle.
+   * @param minZ    The minimum Z coordinate of the rectangle.
+   * @param maxX    The maximum X coordinate of the rectangle.
+   * @param maxZ    The maximum Z coordinate of the rectangle.
+   * @return A list of Road objects intersecting the rectangle.
+   */
+  public ArrayList<Road> getZonesInRectangle(UUID worldId, double minX, double minZ,
+                                             double maxX, double maxZ) {
+    return getZonesInRectangle("regions.world_id = ?", worldId.toString(), minX, minZ, maxX, maxZ);
+  }
+
+  /**
+   * Retrieves the Road objects of a playable zone whose bounding box intersects a rectangle.
+   * The roads are looked up with the bounding box indexes, then resolved through the location
+   * hierarchy cache.
+   *
+   * @param zone The playable zone.
+   * @param minX The minimum X coordinate of the rectangle.
+   * @param minZ The minimum Z coordinate of the rectangle.
+   * @param maxX The maximum X coordinate of the rectangle.
+   * @param maxZ The maximum Z coordinate of the rectangle.
+   * @return A list of Road objects of the zone intersecting the rectangle.
+   */
+  public ArrayList<Road> getZonesInRectangle(PlayableZone zone, double minX, double minZ,
+                                             double maxX, double maxZ) {
+    if (zone instanceof GeoCraftWorld) {
+      return getZonesInRectangle(((GeoCraftWorld) zone).getWorldId(), minX, minZ, maxX, maxZ);
+    } else if (zone instanceof Region) {
+      return getZonesInRectangle("regions.region_id = ?", ((Region) zone).getRegionId(),
+          minX, minZ, maxX, maxZ);
+    } else if (zone instanceof City) {
+      return getZonesInRectangle("cities.city_id = ?", ((City) zone).getCityId(),
+          minX, minZ, maxX, maxZ);
+    } else if (zone instanceof District) {
+      return getZonesInRectangle("districts.district_id = ?", ((District) zone).getDistrictId(),
+          minX, minZ, maxX, maxZ);
+    }
+    return getZonesInRectangle("road.zone_id = ?", ((Road) zone).getZoneId(),
+        minX, minZ, maxX, maxZ);
+  }
+
+  /**
+   * Retrieves the Road objects matching a condition whose bounding box intersects a rectangle.
+   *
+   * @param condition The condition on the zones containing the roads, with one parameter.
+   * @param parameter The parameter of the condition.
+   * @param minX      The minimum X coordinate of the rectangle.
+   * @param minZ      The minimum Z coordinate of the rectangle.
+   * @param maxX      The maximum X coordinate of the rectangle.
+   * @param maxZ      The maximum Z coordinate of the rectangle.
+   * @return A list of Road objects intersecting the rectangle.
+   */
+  private ArrayList<Road> getZonesInRectangle(String condition, Object parameter, double minX,
+                                              double minZ, double maxX, double maxZ) {
+    String query = "SELECT road.zone_id FROM road" + ROAD_JOINS
+        + " WHERE " + condition + " AND road.min_x <= ? AND road.max_x >= ?"
+        + " AND road.min_z <= ? AND road.max_z >= ?";
     ArrayList<Road> roads = new ArrayList<>();
-    try {
-      Statement statement = connection.createStatement();
-      ResultSet resultSet = statement.executeQuery(query);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query)) {
+      statement.setObject(1, parameter);
+      statement.setDouble(2, maxX);
+      statement.setDouble(3, minX);
+      statement.setDouble(4, maxZ);
+      statement.setDouble(5, minZ);
+      ResultSet resultSet = statement.executeQuery();
       while (resultSet.next()) {
-        roads.add(parseResult(resultSet));
+        Road road = getById(resultSet.getInt("zone_id"));
+        if (road != null) {
+          roads.add(road);
+        }
       }
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -134,20 +279,118 @@ public class RoadDao extends AbstractDao<Road> {
   }
 
   /**
-   * Retrieves all Road objects by their district ID.
+   * Retrieves the Road object of a world nearest to a point, on the X and Z axes.
+   * A single query reads the roads of the search square around the point, found with the
+   * bounding box indexes, ordered by the distance between the point and their bounding box. As a
+   * road is never closer than its bounding box, the rows are read until the bounding box of the
+   * next road is farther than the nearest road found.
    *
-   * @param districtId The district ID to filter by.
-   * @return A list of Road objects in the specified district.
+   * @param worldId The UUID of the world.
+   * @param x       The X coordinate of the point.
+   * @param z       The Z coordinate of the point.
+   * @return The nearest Road object, or null if the world has no road.
    */
-  public ArrayList<Road> getZonesByDistrictId(int districtId) {
-    String query = "SELECT * FROM road WHERE district_id = ?;";
+  public Road getNearestZone(UUID worldId, double x, double z) {
+    String distanceX = "(CASE WHEN road.min_x > ? THEN road.min_x - ?"
+        + " WHEN road.max_x < ? THEN ? - road.max_x ELSE 0 END)";
+    String distanceZ = distanceX.replace("_x", "_z");
+    String query = "SELECT road.zone_id, " + distanceX + " * " + distanceX + " + " + distanceZ
+        + " * " + distanceZ + " AS box_distance FROM road" + ROAD_JOINS
+        + " WHERE regions.world_id = ? AND road.min_x <= ? AND road.max_x >= ?"
+        + " AND road.min_z <= ? AND road.max_z >= ? ORDER BY box_distance";
+    Road nearest = null;
+    double nearestDistance = Double.MAX_VALUE;
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(query)) {
+      int index = 1;
+      for (int i = 0; i < 8; i++) {
+        statement.setDouble(index++, x);
+      }
+      for (int i = 0; i < 8; i++) {
+        statement.setDouble(index++, z);
+      }
+      statement.setString(index++, worldId.toString());
+      statement.setDouble(index++, x + MAX_SEARCH_RADIUS);
+      statement.setDouble(index++, x - MAX_SEARCH_RADIUS);
+      statement.setDouble(index++, z + MAX_SEARCH_RADIUS);
+      statement.setDouble(index, z - MAX_SEARCH_RADIUS);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next() && resultSet.getDouble("box_distance") < nearestDistance) {
+          Road road = getById(resultSet.getInt("zone_id"));
+          if (road == null) {
+            continue;
+          }
+          double distance = distanceSquared(road, x, z);
+          if (distance < nearestDistance) {
+            nearest = road;
+            nearestDistance = distance;
+          }
+        }
+      }
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    return nearest;
+  }
+
+  /**
+   * Computes the squared distance between a road and a point, on the X and Z axes.
+   *
+   * @param road The road, a segment between its two points.
+   * @param x    The X coordinate of the point.
+   * @param z    The Z coordinate of the point.
+   * @return The squared distance.
+   */
+  private static double distanceSquared(Road road, double x, double z) {
+    double x1 = road.getZonePoint1().getX();
+    double z1 = road.getZonePoint1().getZ();
+    double dx = road.getZonePoint2().getX() - x1;
+    double dz = road.getZonePoint2().getZ() - z1;
+    double lengthSquared = dx * dx + dz * dz;
+    double t = lengthSquared == 0 ? 0
+        : Math.max(0, Math.min(1, ((x - x1) * dx + (z - z1) * dz) / lengthSquared));
+    double distanceX = x1 + t * dx - x;
+    double distanceZ = z1 + t * dz - z;
+    return distanceX * distanceX + distanceZ * distanceZ;
+  }
+
+  /**
+   * Binds the bounding box of a road to four consecutive parameters of a statement, in the order
+   * min_x, max_x, min_z, max_z.
+   *
+   * @param statement The statement.
+   * @param index     The index of the first parameter.
+   * @param road      The road.
+   * @throws SQLException If a parameter cannot be set.
+   */
+  private static void setBoundingBox(PreparedStatement statement, int index, Road road)
+      throws SQLException {
+    double x1 = road.getZonePoint1().getX();
+    double x2 = road.getZonePoint2().getX();
+    double z1 = road.getZonePoint1().getZ();
+    double z2 = road.getZonePoint2().getZ();
+    statement.setDouble(index, Math.min(x1, x2));
+    statement.setDouble(index + 1, Math.max(x1, x2));
+    statement.setDouble(index + 2, Math.min(z1, z2));
+    statement.setDouble(index + 3, Math.max(z1, z2));
+  }
+
+  /**
+   * Loads all Road objects from the database in a single query, bypassing the location hierarchy
+   * cache. The Bukkit world of the roads is resolved once per world, not once per road.
+   *
+   * @return A list of all Road objects.
+   */
+  public ArrayList<Road> loadAll() {
     ArrayList<Road> roads = new ArrayList<>();
-    try {
-      PreparedStatement statement = connection.prepareStatement(query);
-      statement.setInt(1, districtId);
+    Map<String, World> worlds = new HashMap<>();
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(SELECT_ROADS + ";")) {
       ResultSet resultSet = statement.executeQuery();
       while (resultSet.next()) {
-        roads.add(parseResult(resultSet));
+        World world = worlds.computeIfAbsent(resultSet.getString("world_id"),
+            worldId -> Bukkit.getWorld(UUID.fromString(worldId)));
+        roads.add(parseResult(resultSet, world));
       }
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -159,18 +402,17 @@ public class RoadDao extends AbstractDao<Road> {
    * Parses a ResultSet into a Road object.
    *
    * @param resultSet The ResultSet to parse.
+   * @param world     The world of the road.
    * @return The parsed Road object.
    */
-  private Road parseResult(ResultSet resultSet) {
+  private Road parseResult(ResultSet resultSet, World world) {
     try {
-      WorldDao worldDao = new WorldDao();
-      GeoCraftWorld world = worldDao.getWorldByZoneId(resultSet.getInt("zone_id"));
-      Location point1 = new Location(world.getWorld(), resultSet.getDouble("zone_point1_x"),
+      Location point1 = new Location(world, resultSet.getDouble("zone_point1_x"),
           resultSet.getDouble("zone_point1_y"), resultSet.getDouble("zone_point1_z"));
-      Location point2 = new Location(world.getWorld(), resultSet.getDouble("zone_point2_x"),
+      Location point2 = new Location(world, resultSet.getDouble("zone_point2_x"),
           resultSet.getDouble("zone_point2_y"), resultSet.getDouble("zone_point2_z"));
-      return new Road(point1, point2, resultSet.getString("zone_name"),
-          resultSet.getInt("district_id"));
+      return new Road(resultSet.getInt("zone_id"), point1, point2,
+          resultSet.getString("zone_name"), resultSet.getInt("district_id"));
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -179,11 +421,12 @@ public class RoadDao extends AbstractDao<Road> {
   /**
    * Gets the SQL query for creating the road table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the road table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS road ("
-        + "zone_id INT AUTO_INCREMENT PRIMARY KEY,"
+        + "zone_id " + dialect.getAutoIncrementPrimaryKey() + ","
         + "zone_name VARCHAR(255) NOT NULL,"
         + "district_id INT NOT NULL,"
         + "zone_point1_x DOUBLE NOT NULL,"
@@ -192,6 +435,10 @@ public class RoadDao extends AbstractDao<Road> {
         + "zone_point2_x DOUBLE NOT NULL,"
         + "zone_point2_y DOUBLE NOT NULL,"
         + "zone_point2_z DOUBLE NOT NULL,"
+        + "min_x DOUBLE NOT NULL DEFAULT 0,"
+        + "max_x DOUBLE NOT NULL DEFAULT 0,"
+        + "min_z DOUBLE NOT NULL DEFAULT 0,"
+        + "max_z DOUBLE NOT NULL DEFAULT 0,"
         + "FOREIGN KEY (district_id) REFERENCES districts(district_id)"
         + ")";
   }
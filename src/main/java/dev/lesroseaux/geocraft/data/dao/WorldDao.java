@@ -1,10 +1,14 @@
 package dev.lesroseaux.geocraft.data.dao;
 
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.UUID;
+import org.bukkit.Bukkit;
 
 /**
  * Data Access Object (DAO) for the GeoCraftWorld entity.
@@ -20,13 +24,15 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
   @Override
   public int insert(GeoCraftWorld obj) {
     String preparedQuery = "INSERT INTO worlds (world_id, world_name) VALUES (?, ?)";
-    try (PreparedStatement statement = connection.prepareStatement(preparedQuery,
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedQuery,
         PreparedStatement.RETURN_GENERATED_KEYS)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getWorldId().toString());
       statement.setString(2, obj.getWorldName());
       int result = statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
       return result;
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -41,13 +47,14 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
   @Override
   public void update(GeoCraftWorld obj) {
     String preparedQuery = "UPDATE worlds SET world_name = ? WHERE world_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedQuery);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedQuery)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getWorldName());
       statement.setString(2, obj.getWorldId().toString());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().put(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -61,12 +68,13 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
   @Override
   public void delete(GeoCraftWorld obj) {
     String preparedQuery = "DELETE FROM worlds WHERE world_id = ?";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedQuery);
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedQuery)) {
       connection.setAutoCommit(false);
       statement.setString(1, obj.getWorldId().toString());
       statement.executeUpdate();
       connection.commit();
+      LocationHierarchyCache.getInstance().remove(obj);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -90,31 +98,41 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
    * @return The GeoCraftWorld object with the specified UUID.
    */
   public GeoCraftWorld getByUuid(UUID id) {
-    String preparedQuery = "SELECT * FROM worlds WHERE world_id = ?";
-    try (PreparedStatement statement = connection.prepareStatement(preparedQuery)) {
-      statement.setString(1, id.toString());
-      try (ResultSet resultSet = statement.executeQuery()) {
-        if (resultSet.next()) {
-          GeoCraftWorld world = new GeoCraftWorld();
-          world.setWorldId(UUID.fromString(resultSet.getString("world_id")));
-          world.setWorldName(resultSet.getString("world_name"));
-          return world;
-        }
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-    return null;
+    return LocationHierarchyCache.getInstance().getWorld(id);
   }
 
   /**
-   * Retrieves all GeoCraftWorld objects from the database.
+   * Retrieves all GeoCraftWorld objects from the location hierarchy cache.
    *
    * @return A list of all GeoCraftWorld objects.
    */
   @Override
   public ArrayList<GeoCraftWorld> getAll() {
-    throw new UnsupportedOperationException("Does not support getAll operation");
+    return LocationHierarchyCache.getInstance().getWorlds();
+  }
+
+  /**
+   * Loads all GeoCraftWorld objects from the database, bypassing the location hierarchy cache.
+   *
+   * @return A list of all GeoCraftWorld objects.
+   */
+  public ArrayList<GeoCraftWorld> loadAll() {
+    String preparedQuery = "SELECT * FROM worlds";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedQuery)) {
+      ResultSet resultSet = statement.executeQuery();
+      ArrayList<GeoCraftWorld> worlds = new ArrayList<>();
+      while (resultSet.next()) {
+        GeoCraftWorld world = new GeoCraftWorld();
+        world.setWorldId(UUID.fromString(resultSet.getString("world_id")));
+        world.setWorldName(resultSet.getString("world_name"));
+        world.setWorld(Bukkit.getWorld(world.getWorldId()));
+        worlds.add(world);
+      }
+      return worlds;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
@@ -124,10 +142,14 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
    * @return The GeoCraftWorld object with the specified zone ID.
    */
   public GeoCraftWorld getWorldByZoneId(int zoneId) {
-    String preparedQuery = "SELECT * FROM worlds WHERE world_id "
-        + "= (SELECT world_id FROM road WHERE zone_id = ?)";
-    try {
-      PreparedStatement statement = connection.prepareStatement(preparedQuery);
+    String preparedQuery = "SELECT worlds.* FROM worlds"
+        + " JOIN regions ON regions.world_id = worlds.world_id"
+        + " JOIN cities ON cities.region_id = regions.region_id"
+        + " JOIN districts ON districts.city_id = cities.city_id"
+        + " JOIN road ON road.district_id = districts.district_id"
+        + " WHERE road.zone_id = ?";
+    try (Connection connection = getConnection();
+         PreparedStatement statement = connection.prepareStatement(preparedQuery)) {
       statement.setInt(1, zoneId);
       ResultSet resultSet = statement.executeQuery();
       if (resultSet.next()) {
@@ -145,11 +167,12 @@ public class WorldDao extends AbstractDao<GeoCraftWorld> {
   /**
    * Gets the SQL query for creating the worlds table.
    *
+   * @param dialect The SQL dialect of the database.
    * @return The SQL query for creating the worlds table.
    */
-  public String getTableCreationQuery() {
+  public String getTableCreationQuery(SqlDialect dialect) {
     return "CREATE TABLE IF NOT EXISTS worlds ("
-        + "world_uuid VARCHAR(36) PRIMARY KEY,"
+        + "world_id VARCHAR(36) PRIMARY KEY,"
         + "world_name VARCHAR(255) NOT NULL"
         + ")";
   }
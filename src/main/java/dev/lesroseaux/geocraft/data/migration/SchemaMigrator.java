@@ -0,0 +1,282 @@
+package dev.lesroseaux.geocraft.data.migration;
+
+import dev.lesroseaux.geocraft.data.connection.SqlDialect;
+import dev.lesroseaux.geocraft.data.dao.AbstractDao;
+import dev.lesroseaux.geocraft.data.dao.CityDao;
+import dev.lesroseaux.geocraft.data.dao.DistrictDao;
+import dev.lesroseaux.geocraft.data.dao.LocationToMapDao;
+import dev.lesroseaux.geocraft.data.dao.MapDao;
+import dev.lesroseaux.geocraft.data.dao.RegionDao;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
+import dev.lesroseaux.geocraft.data.dao.WorldDao;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Brings the database schema up to date with versioned migrations.
+ * The version of the schema is stored in the schema_version table, and the migrations newer than
+ * it are applied in order, in a single transaction, each being recorded once applied. Connecting
+ * to an up-to-date database then only reads the version. MySQL commits schema changes
+ * immediately, so a failed migration cannot be fully rolled back there: every migration checks
+ * the current schema before changing it, so running it again after a failure is safe.
+ */
+public class SchemaMigrator {
+  private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+
+  private static final List<Migration> MIGRATIONS = List.of(
+      new Migration(1, "Rename worlds.world_uuid to world_id",
+          SchemaMigrator::renameWorldUuid),
+      new Migration(2, "Create the tables", SchemaMigrator::createTables),
+      new Migration(3, "Add the road bounding boxes", SchemaMigrator::addRoadBoundingBoxes),
+      new Migration(4, "Index the foreign keys and the names", SchemaMigrator::addLookupIndexes)
+  );
+
+  private final Connection connection;
+  private final SqlDialect dialect;
+
+  /**
+   * Constructs a SchemaMigrator.
+   *
+   * @param connection The connection to migrate the database with.
+   * @param dialect    The SQL dialect of the database.
+   */
+  public SchemaMigrator(Connection connection, SqlDialect dialect) {
+    this.connection = connection;
+    this.dialect = dialect;
+  }
+
+  /**
+   * Applies the migrations newer than the version of the schema.
+   *
+   * @throws SQLException If a migration fails, in which case the transaction is rolled back.
+   */
+  public void migrate() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version ("
+          + "version INT PRIMARY KEY,"
+          + "description VARCHAR(255) NOT NULL,"
+          + "applied_at BIGINT NOT NULL"
+          + ")");
+    }
+    int version = getVersion();
+    if (version >= MIGRATIONS.getLast().version) {
+      return;
+    }
+    connection.setAutoCommit(false);
+    try (PreparedStatement record = connection.prepareStatement(
+        "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+      for (Migration migration : MIGRATIONS) {
+        if (migration.version <= version) {
+          continue;
+        }
+        LOGGER.info("Migrating the database to version " + migration.version + ": "
+            + migration.description);
+        migration.step.apply(connection, dialect);
+        record.setInt(1, migration.version);
+        record.setString(2, migration.description);
+        record.setLong(3, System.currentTimeMillis());
+        record.executeUpdate();
+      }
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  /**
+   * Gets the version of the schema.
+   *
+   * @return The version of the last applied migration, or 0 if none was applied.
+   * @throws SQLException If the version cannot be read.
+   */
+  private int getVersion() throws SQLException {
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
+    }
+  }
+
+  /**
+   * Renames the world_uuid column of a worlds table created by the first releases, whose queries
+   * used world_id.
+   *
+   * @param connection The connection.
+   * @param dialect    The SQL dialect of the database.
+   * @throws SQLException If the column cannot be renamed.
+   */
+  private static void renameWorldUuid(Connection connection, SqlDialect dialect)
+      throws SQLException {
+    if (getColumns(connection, "worlds").contains("world_uuid")) {
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate("ALTER TABLE worlds RENAME COLUMN world_uuid TO world_id");
+      }
+    }
+  }
+
+  /**
+   * Creates the missing tables, parents first.
+   *
+   * @param connection The connection.
+   * @param dialect    The SQL dialect of the database.
+   * @throws SQLException If a table cannot be created.
+   */
+  private static void createTables(Connection connection, SqlDialect dialect)
+      throws SQLException {
+    List<AbstractDao<?>> daos = List.of(new WorldDao(), new RegionDao(), new CityDao(),
+        new DistrictDao(), new RoadDao(), new LocationToMapDao(), new MapDao());
+    try (Statement statement = connection.createStatement()) {
+      for (AbstractDao<?> dao : daos) {
+        statement.executeUpdate(dao.getTableCreationQuery(dialect));
+      }
+    }
+  }
+
+  /**
+   * Adds and fills the bounding box columns of a road table created before they existed, and
+   * indexes them. Each index starts with the bounds of one axis and covers the bounds of the
+   * other, so a rectangle is resolved from the index alone.
+   *
+   * @param connection The connection.
+   * @param dialect    The SQL dialect of the database.
+   * @throws SQLException If the columns or the indexes cannot be created.
+   */
+  private static void addRoadBoundingBoxes(Connection connection, SqlDialect dialect)
+      throws SQLException {
+    Set<String> columns = getColumns(connection, "road");
+    List<String> boundingBox = List.of("min_x", "max_x", "min_z", "max_z");
+    if (!columns.containsAll(boundingBox)) {
+      try (Statement statement = connection.createStatement()) {
+        for (String column : boundingBox) {
+          if (!columns.contains(column)) {
+            statement.executeUpdate("ALTER TABLE road ADD COLUMN " + column
+                + " DOUBLE NOT NULL DEFAULT 0");
+          }
+        }
+        statement.executeUpdate("UPDATE road SET"
+            + " min_x = CASE WHEN zone_point1_x < zone_point2_x THEN zone_point1_x ELSE zone_point2_x END,"
+            + " max_x = CASE WHEN zone_point1_x > zone_point2_x THEN zone_point1_x ELSE zone_point2_x END,"
+            + " min_z = CASE WHEN zone_point1_z < zone_point2_z THEN zone_point1_z ELSE zone_point2_z END,"
+            + " max_z = CASE WHEN zone_point1_z > zone_point2_z THEN zone_point1_z ELSE zone_point2_z END");
+      }
+    }
+    createIndex(connection, "road", "road_bbox_x", "min_x, max_x, min_z, max_z");
+    createIndex(connection, "road", "road_bbox_z", "min_z, max_z, min_x, max_x");
+  }
+
+  /**
+   * Indexes the columns the DAOs look rows up by: the parent of every zone, the name of the
+   * regions and the zones of the maps. MySQL already indexes foreign keys, and drops its own
+   * index once an explicit one covers the key; SQLite does not.
+   *
+   * @param connection The connection.
+   * @param dialect    The SQL dialect of the database.
+   * @throws SQLException If an index cannot be created.
+   */
+  private static void addLookupIndexes(Connection connection, SqlDialect dialect)
+      throws SQLException {
+    createIndex(connection, "regions", "regions_world", "world_id");
+    createIndex(connection, "regions", "regions_name", "region_name");
+    createIndex(connection, "cities", "cities_region", "region_id");
+    createIndex(connection, "districts", "districts_city", "city_id");
+    createIndex(connection, "road", "road_district", "district_id");
+    createIndex(connection, "location_to_map", "location_to_map_world", "world_id");
+    createIndex(connection, "location_to_map", "location_to_map_region", "region_id");
+    createIndex(connection, "location_to_map", "location_to_map_city", "city_id");
+    createIndex(connection, "location_to_map", "location_to_map_district", "district_id");
+    createIndex(connection, "Map", "map_location", "location_id");
+  }
+
+  /**
+   * Gets the columns of a table.
+   *
+   * @param connection The connection.
+   * @param table      The name of the table.
+   * @return The lower case names of the columns, empty if the table does not exist.
+   * @throws SQLException If the columns cannot be read.
+   */
+  private static Set<String> getColumns(Connection connection, String table) throws SQLException {
+    Set<String> columns = new HashSet<>();
+    try (ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(), null,
+        table, null)) {
+      while (resultSet.next()) {
+        columns.add(resultSet.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Creates an index unless the table already has an index with the same name.
+   *
+   * @param connection The connection.
+   * @param table      The name of the table.
+   * @param name       The name of the index.
+   * @param columns    The indexed columns, separated by commas.
+   * @throws SQLException If the index cannot be created.
+   */
+  private static void createIndex(Connection connection, String table, String name,
+                                  String columns) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, table, false,
+        true)) {
+      while (resultSet.next()) {
+        if (name.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+          return;
+        }
+      }
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+    }
+  }
+
+  /**
+   * Change of the schema.
+   */
+  private static class Migration {
+    private final int version;
+    private final String description;
+    private final MigrationStep step;
+
+    /**
+     * Constructs a Migration.
+     *
+     * @param version     The version of the schema once the migration is applied.
+     * @param description The description of the migration.
+     * @param step        The changes of the migration.
+     */
+    Migration(int version, String description, MigrationStep step) {
+      this.version = version;
+      this.description = description;
+      this.step = step;
+    }
+  }
+
+  /**
+   * Changes the schema of the database.
+   */
+  @FunctionalInterface
+  private interface MigrationStep {
+
+    /**
+     * Changes the schema of the database.
+     *
+     * @param connection The connection, in the migration transaction.
+     * @param dialect    The SQL dialect of the database.
+     * @throws SQLException If the schema cannot be changed.
+     */
+    void apply(Connection connection, SqlDialect dialect) throws SQLException;
+  }
+}
\ No newline at end of file
@@ -4,9 +4,12 @@ import dev.lesroseaux.geocraft.models.location.PlayableZone;
 import dev.lesroseaux.geocraft.utils.Banner;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.entity.Player;
@@ -20,10 +23,16 @@ public class Game {
   private PlayableZone playableZone;
   private final UUID gameUuid;
   private final ArrayList<GeocraftPlayer> players;
+  @Getter(AccessLevel.NONE)
+  private final Map<UUID, GeocraftPlayer> playersById;
+  @Getter(AccessLevel.NONE)
+  private final BitSet usedBanners;
   private Duration gameDuration;
   private GeocraftMap geocraftMap;
   private final Random random;
   private long startTime;
+  private int roundCount;
+  private int round;
 
   /**
    * Constructs a new Game instance.
@@ -32,9 +41,13 @@ public class Game {
     this.gameDuration = Duration.ZERO;
     this.playableZone = null;
     this.players = new ArrayList<>();
+    this.playersById = new HashMap<>();
+    this.usedBanners = new BitSet(Banner.bannersList.size());
     this.gameUuid = UUID.randomUUID();
     this.random = new Random();
     this.geocraftMap = null; // Initialize geocraftMap to null
+    this.roundCount = 1;
+    this.round = 0;
   }
 
   /**
@@ -47,17 +60,20 @@ public class Game {
   }
 
   /**
-   * Adds a player to the game.
+   * Adds a player to the game, with a random banner not used by the other players.
    *
    * @param player The player to add.
    */
   public void addPlayer(Player player) {
-    List<Banner> banners = new ArrayList<>(Banner.bannersList);
-    for (GeocraftPlayer geocraftPlayer : players) {
-      banners.remove(geocraftPlayer.getBanner());
+    int free = Banner.bannersList.size() - usedBanners.cardinality();
+    int banner = usedBanners.nextClearBit(0);
+    for (int skipped = random.nextInt(free); skipped > 0; skipped--) {
+      banner = usedBanners.nextClearBit(banner + 1);
     }
-    Banner banner = banners.get(random.nextInt(banners.size()));
-    players.add(new GeocraftPlayer(player, banner));
+    usedBanners.set(banner);
+    GeocraftPlayer geocraftPlayer = new GeocraftPlayer(player, Banner.bannersList.get(banner));
+    players.add(geocraftPlayer);
+    playersById.put(player.getUniqueId(), geocraftPlayer);
   }
 
   /**
@@ -66,7 +82,11 @@ public class Game {
    * @param player The player to remove.
    */
   public void removePlayer(Player player) {
-    players.removeIf(geocraftPlayer -> geocraftPlayer.getPlayer().equals(player));
+    GeocraftPlayer geocraftPlayer = playersById.remove(player.getUniqueId());
+    if (geocraftPlayer != null) {
+      players.remove(geocraftPlayer);
+      usedBanners.clear(Banner.bannersList.indexOf(geocraftPlayer.getBanner()));
+    }
   }
 
   /**
@@ -74,6 +94,8 @@ public class Game {
    */
   public void clearPlayers() {
     players.clear();
+    playersById.clear();
+    usedBanners.clear();
   }
 
   /**
@@ -83,7 +105,7 @@ public class Game {
    * @return True if the player is in the game, false otherwise.
    */
   public boolean isPlayerInGame(Player player) {
-    return players.stream().map(GeocraftPlayer::getPlayer).toList().contains(player);
+    return playersById.containsKey(player.getUniqueId());
   }
 
   /**
@@ -93,7 +115,16 @@ public class Game {
    * @return The GeocraftPlayer object, or null if not found.
    */
   public GeocraftPlayer getPlayer(Player player) {
-    return players.stream().filter(geocraftPlayer -> geocraftPlayer.getPlayer().equals(player)).findFirst().orElse(null);
+    return playersById.get(player.getUniqueId());
+  }
+
+  /**
+   * Checks if every banner is used, in which case no player can join the game anymore.
+   *
+   * @return True if the game is full, false otherwise.
+   */
+  public boolean isFull() {
+    return players.size() >= Banner.bannersList.size();
   }
 
   /**
@@ -115,10 +146,20 @@ public class Game {
   }
 
   /**
-   * Starts the game.
+   * Starts the next round of the game.
    */
   public void start() {
+    round++;
     startTime = System.currentTimeMillis();
   }
 
+  /**
+   * Checks if the current round is the last round of the game.
+   *
+   * @return True if the current round is the last one, false otherwise.
+   */
+  public boolean isLastRound() {
+    return round >= roundCount;
+  }
+
 }
\ No newline at end of file
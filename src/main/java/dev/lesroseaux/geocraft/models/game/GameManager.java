@@ -1,77 +1,148 @@
 package dev.lesroseaux.geocraft.models.game;
 
 import dev.lesroseaux.geocraft.controllers.MapBuilder;
+import dev.lesroseaux.geocraft.data.cache.LocationHierarchyCache;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
 import dev.lesroseaux.geocraft.models.location.GeoCraftWorld;
 import dev.lesroseaux.geocraft.models.location.PlayableZone;
 import dev.lesroseaux.geocraft.models.location.Road;
 import dev.lesroseaux.geocraft.models.score.ScoreManager;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Random;
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
+import java.util.UUID;
 import lombok.Getter;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BossBar;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 
 /**
- * Manages the GeoCraft game, including initialization, player management, and game state.
+ * Manages one GeoCraft game, including initialization, player management, and game state.
+ * The games are created and routed to through the {@link GameRegistry}.
  */
 public class GameManager {
-  private static GameManager instance;
+  private final GameRegistry registry;
+  private final Plugin plugin;
+  @Getter
+  private UUID ownerId;
+  private final int slot;
   private final Game game;
   @Getter
   private boolean gameStarted;
+  private boolean initializing;
   private MapBuilder mapBuilder;
   private final ScoreManager scoreManager;
-  private Plugin plugin;
-  private ArrayList<Road> roads;
+  private SpawnSampler spawnSampler;
   private BossBar bossBar;
+  private BukkitTask endTask;
+  private BukkitTask bossBarTask;
 
   /**
-   * Private constructor for GameManager.
+   * Constructor for GameManager.
    * Initializes the game and score manager.
+   *
+   * @param registry The registry hosting the game.
+   * @param plugin   The plugin instance.
+   * @param ownerId  The UUID of the player who created the game.
+   * @param slot     The guess map slot of the game.
    */
-  private GameManager() {
+  GameManager(GameRegistry registry, Plugin plugin, UUID ownerId, int slot) {
+    this.registry = registry;
+    this.plugin = plugin;
+    this.ownerId = ownerId;
+    this.slot = slot;
     game = new Game();
     gameStarted = false;
     scoreManager = new ScoreManager();
   }
 
   /**
-   * Returns the singleton instance of GameManager.
+   * Marks the game as being initialized, so that it cannot be started again while its roads are
+   * loaded and its guess map is built.
    *
-   * @return The singleton instance of GameManager.
+   * @return True if the game was marked, false if it is already initialized or started.
+   */
+  public boolean beginInitialization() {
+    if (initializing || gameStarted) {
+      return false;
+    }
+    initializing = true;
+    return true;
+  }
+
+  /**
+   * Unmarks a game whose initialization failed before its guess map was built, so that it can be
+   * started again.
    */
-  public static GameManager getInstance() {
-    if (instance == null) {
-      instance = new GameManager();
+  public void cancelInitialization() {
+    if (mapBuilder == null) {
+      initializing = false;
     }
-    return instance;
   }
 
   /**
-   * Initializes the game with the given plugin.
+   * Loads the roads of the playable zone inside the bounds of the guess map, the players being
+   * teleported along them. Runs on a database thread.
    *
-   * @param plugin The plugin instance.
+   * @return The roads of the playable zone inside the guess map.
    */
-  public void initGame(Plugin plugin) {
-    this.plugin = plugin;
-    roads = game.getPlayableZone().getZones();
+  public ArrayList<Road> loadRoads() {
+    GeocraftMap map = game.getMap();
+    return new RoadDao().getZonesInRectangle(game.getPlayableZone(), map.getMinX(),
+        map.getMinZ(), map.getMaxX(), map.getMaxZ());
+  }
+
+  /**
+   * Initializes the game with the roads loaded by {@link #loadRoads()}.
+   * The guess map is built in the slot of the game, the slots being laid along the X axis from
+   * the map location of the configuration. The game is cancelled if its guess map is wider than
+   * the spacing of the slots, as it would overlap the guess map of the next slot. Nothing is done
+   * if the guess map is already built or being built, or if every player left the game meanwhile.
+   *
+   * @param roads The roads of the playable zone inside the guess map.
+   */
+  public void initGame(ArrayList<Road> roads) {
+    if (gameStarted || mapBuilder != null) {
+      return;
+    }
+    if (game.isGameEmpty()) {
+      initializing = false;
+      return;
+    }
+    initializing = true;
+    if (roads.isEmpty()) {
+      cancelGame("The playable zone has no road inside the guess map.");
+      return;
+    }
+    if (!LocationHierarchyCache.getInstance().isLoaded()) {
+      initializing = false;
+      game.getPlayers().forEach(player -> player.getPlayer().sendMessage(
+          "The locations are still being loaded from the database, try again in a moment."));
+      return;
+    }
+    FileConfiguration config = plugin.getConfig();
+    int slotSpacing = config.getInt("games.slotSpacing");
+    int mapWidth = game.getMap().getRenderWidth();
+    if (mapWidth > slotSpacing) {
+      cancelGame("The guess map would be " + mapWidth + " blocks wide, more than the "
+          + slotSpacing + " blocks between two games. Use a larger scale or zoom level.");
+      return;
+    }
+    spawnSampler = SpawnSampler.fromConfig(config, roads.getFirst().getZonePoint1().getWorld(),
+        roads, game.getRandom());
 
     game.getPlayers().forEach(scoreManager::addPlayer);
 
-    FileConfiguration config = plugin.getConfig();
     Location startLocation = new Location(roads.getFirst().getZonePoint1().getWorld(),
-        config.getInt("mapLocation.x"),
+        config.getInt("mapLocation.x") + slot * slotSpacing,
         config.getInt("mapLocation.y"),
         config.getInt("mapLocation.z"));
 
@@ -88,6 +159,21 @@ public class GameManager {
     mapBuilder.build();
   }
 
+  /**
+   * Cancels a game not started yet: its players are told why and leave it, and its guess map
+   * slot is freed.
+   *
+   * @param reason The reason of the cancellation.
+   */
+  private void cancelGame(String reason) {
+    game.getPlayers().forEach(player -> player.getPlayer().sendMessage(reason));
+    registry.removeGame(this, game.getPlayers().stream()
+        .map(player -> player.getPlayer().getUniqueId()).toList());
+    registry.releaseSlot(slot);
+    game.clearPlayers();
+    initializing = false;
+  }
+
   /**
    * Initializes the boss bar for displaying the remaining game time.
    */
@@ -99,14 +185,16 @@ public class GameManager {
   }
 
   /**
-   * Updates the boss bar with the remaining game time.
+   * Updates the boss bar with the remaining time of the round.
    */
   private void updateBossBar() {
     long remainingTime = game.getGameDuration().toMillis() - (System.currentTimeMillis() - game.getStartTime());
     double progress = (double) remainingTime / game.getGameDuration().toMillis();
     progress = Math.max(0.0, Math.min(1.0, progress)); // Clamp the progress value
     bossBar.setProgress(progress);
-    bossBar.setTitle("Time left: " + remainingTime / 1000 + " seconds");
+    String round = game.getRoundCount() > 1
+        ? "Round " + game.getRound() + "/" + game.getRoundCount() + " - " : "";
+    bossBar.setTitle(round + "Time left: " + remainingTime / 1000 + " seconds");
     if (remainingTime / 1000 <= 10) {
       bossBar.setColor(BarColor.YELLOW);
     } else if (remainingTime / 1000 <= 5) {
@@ -115,61 +203,99 @@ public class GameManager {
   }
 
   /**
-   * Starts the game, initializes the boss bar, and schedules the end of the game.
+   * Starts the game once the guess map is built, initializes the boss bar, and starts the first
+   * round.
    */
   public void startGame() {
     BukkitScheduler scheduler = plugin.getServer().getScheduler();
     gameStarted = true;
+    initializing = false;
+    if (game.isGameEmpty()) {
+      endGame();
+      return;
+    }
     Location center = mapBuilder.getCenterOfGuessMap();
     this.game.getPlayers().forEach(player -> player.setMapCenter(center));
+    initBossBar();
+    bossBarTask = scheduler.runTaskTimer(plugin, this::updateBossBar, 0, 20);
+    startRound();
+  }
 
-    scheduler.scheduleSyncDelayedTask(plugin, this::endGame, game.getGameDuration().toMillis() / 50);
+  /**
+   * Starts a round: the players are teleported to new locations and their banners are removed
+   * from the guess map, which stays built for the whole game. The end of the round is scheduled.
+   */
+  private void startRound() {
+    spawnSampler.clearSpawns();
     for (GeocraftPlayer player : game.getPlayers()) {
-      teleportPlayer(player, roads);
+      player.resetGuess();
+      player.teleportToRandom(spawnSampler.nextSpawn());
       player.setInventory();
     }
-    game.getPlayers().forEach(player -> player.getPlayer().sendMessage("The game is starting, you have "
-        + game.getGameDuration().toSeconds() + " seconds to play."));
-    game.getPlayers().forEach(GeocraftPlayer::setInventory);
     game.start();
-    initBossBar();
-    scheduler.scheduleSyncRepeatingTask(plugin, this::updateBossBar, 0, 20);
+    String round = game.getRoundCount() > 1
+        ? "Round " + game.getRound() + "/" + game.getRoundCount() + " is starting, " : "The game is starting, ";
+    game.getPlayers().forEach(player -> player.getPlayer().sendMessage(round + "you have "
+        + game.getGameDuration().toSeconds() + " seconds to play."));
+    bossBar.setColor(BarColor.GREEN);
+    endTask = plugin.getServer().getScheduler().runTaskLater(plugin, this::endRound,
+        game.getGameDuration().toMillis() / 50);
   }
 
   /**
-   * Teleports a player to a random location on a road.
-   *
-   * @param player The player to teleport.
-   * @param roads  The list of roads.
+   * Ends a round, adds the scores of the round to the scores of the players, and starts the next
+   * round or ends the game after the last one.
    */
-  private void teleportPlayer(GeocraftPlayer player, ArrayList<Road> roads) {
-    Road road = roads.get(new Random().nextInt(roads.size()));
-    World world = player.getPlayer().getWorld();
-    double t = new Random().nextDouble();
-    int x = (int) ((1 - t) * road.getZonePoint1().getX() + t * road.getZonePoint2().getX());
-    int z = (int) ((1 - t) * road.getZonePoint1().getZ() + t * road.getZonePoint2().getZ());
-    Location teleportLocation  = new Location(world, x, (road.getZonePoint1().y() + road.getZonePoint2().y()) / 2, z);
-    Bukkit.getScheduler().runTask(plugin, () -> player.teleportToRandom(teleportLocation));
+  private void endRound() {
+    List<GeocraftPlayer> players = game.getPlayers();
+    int[] previousScores = new int[players.size()];
+    for (int i = 0; i < previousScores.length; i++) {
+      previousScores[i] = scoreManager.getScore(players.get(i));
+    }
+    scoreManager.calculateScore(game.getMap(), mapBuilder.getStart());
+    if (game.isLastRound()) {
+      endGame();
+      return;
+    }
+    for (int i = 0; i < previousScores.length; i++) {
+      GeocraftPlayer player = players.get(i);
+      player.getPlayer().sendMessage("Round " + game.getRound() + " is over, you scored "
+          + (scoreManager.getScore(player) - previousScores[i]) + " points, "
+          + scoreManager.getScore(player) + " in total.");
+    }
+    startRound();
   }
 
   /**
-   * Ends the game, calculates scores, announces the winner, and resets player states.
+   * Ends the game, announces the winner, and resets player states.
+   * The game is then removed from the registry, and its guess map slot is freed once its guess
+   * map is removed.
    */
   private void endGame() {
-    scoreManager.calculateScore(game.getMap(), mapBuilder.getStart());
+    if (endTask != null) {
+      endTask.cancel();
+      bossBarTask.cancel();
+    }
     GeocraftPlayer winner = scoreManager.getWinner();
-    game.getPlayers().forEach(player -> player.getPlayer().sendMessage("The game is over, the winner is "
-        + winner.getPlayer().getName() + " with a score of " + scoreManager.getScore(winner)));
+    if (winner != null) {
+      game.getPlayers().forEach(player -> player.getPlayer().sendMessage("The game is over, the winner is "
+          + winner.getPlayer().getName() + " with a score of " + scoreManager.getScore(winner)));
+    }
     game.getPlayers().forEach(player -> player.getPlayer().sendMessage("Your score is " + scoreManager.getScore(player)));
+    game.getPlayers().forEach(GeocraftPlayer::resetGuess);
     game.getPlayers().forEach(GeocraftPlayer::resetInventory);
     game.getPlayers().forEach(player -> player.getPlayer().teleport(player.getLastPos()));
     game.getPlayers().forEach(player -> player.getPlayer().sendMessage("You have been teleported back to your initial position."));
     game.getPlayers().forEach(player -> player.getPlayer().sendMessage("Removing the guess map..."));
-    CompletableFuture.runAsync(() -> {
-      mapBuilder.removeMap();
+    mapBuilder.removeMap().whenComplete((ignored, e) -> {
+      registry.releaseSlot(slot);
+      plugin.getLogger().info("Guess map removed.");
     });
+    registry.removeGame(this, game.getPlayers().stream()
+        .map(player -> player.getPlayer().getUniqueId()).toList());
     game.clearPlayers();
     gameStarted = false;
+    initializing = false;
 
     if (bossBar != null) {
       bossBar.removeAll();
@@ -185,6 +311,15 @@ public class GameManager {
     game.setGameDuration(duration);
   }
 
+  /**
+   * Sets the number of rounds of the game, all played on the same guess map.
+   *
+   * @param roundCount The number of rounds.
+   */
+  public void setRoundCount(int roundCount) {
+    game.setRoundCount(roundCount);
+  }
+
   /**
    * Sets the playable zone of the game.
    *
@@ -194,12 +329,23 @@ public class GameManager {
     game.setPlayableZone(playableZone);
   }
 
+  /**
+   * Gets the playable zone of the game.
+   *
+   * @return The playable zone.
+   */
+  public PlayableZone getPlayableZone() {
+    return game.getPlayableZone();
+  }
+
   /**
    * Adds a player to the game.
+   * Players join through {@link GameRegistry#join(Player, GameManager)}, which routes them to
+   * the game.
    *
    * @param player The player to add.
    */
-  public void addPlayer(Player player) {
+  void addPlayer(Player player) {
     game.addPlayer(player);
     Component message = Component.text("You joined the game.").color(TextColor.color(0x00FF00));
     player.sendMessage(message);
@@ -211,16 +357,44 @@ public class GameManager {
 
   /**
    * Removes a player from the game.
+   * Players leave through {@link GameRegistry#leave(Player)}.
+   * A player leaving a started game has their banner removed from the guess map, since it can be
+   * given to a player joining afterwards, and is teleported back to their initial position. The
+   * game ends once every player left it, and the first remaining player becomes the owner of the
+   * game when its owner leaves it.
    *
    * @param player The player to remove.
    */
-  public void removePlayer(Player player) {
+  void removePlayer(Player player) {
+    GeocraftPlayer geocraftPlayer = game.getPlayer(player);
+    if (geocraftPlayer == null) {
+      return;
+    }
+    if (gameStarted) {
+      geocraftPlayer.resetGuess();
+      geocraftPlayer.resetInventory();
+      player.teleport(geocraftPlayer.getLastPos());
+      bossBar.removePlayer(player);
+    }
+    scoreManager.removePlayer(geocraftPlayer);
     game.removePlayer(player);
     player.sendMessage("You left the game.");
     Component message = Component.text(player.getName()).color(TextColor.color(0xFF0000))
         .append(Component.text(" left the game."));
     game.getPlayers().forEach(gamePlayer -> gamePlayer.getPlayer().sendMessage(message));
-    scoreManager.removePlayer(game.getPlayer(player));
+    if (game.isGameEmpty()) {
+      if (gameStarted) {
+        endGame();
+      } else if (mapBuilder == null) {
+        registry.removeGame(this, List.of());
+        registry.releaseSlot(slot);
+      }
+    } else if (player.getUniqueId().equals(ownerId)) {
+      Player owner = game.getPlayers().getFirst().getPlayer();
+      registry.changeOwner(this, owner.getUniqueId());
+      ownerId = owner.getUniqueId();
+      owner.sendMessage("You are now the owner of the game.");
+    }
   }
 
   /**
@@ -230,7 +404,16 @@ public class GameManager {
    * @return True if the player is in the game, false otherwise.
    */
   public boolean isPlayerInGame(Player player) {
-    return game.getPlayers().stream().anyMatch(p -> p.getPlayer().equals(player));
+    return game.isPlayerInGame(player);
+  }
+
+  /**
+   * Checks if no player can join the game anymore.
+   *
+   * @return True if the game is full, false otherwise.
+   */
+  public boolean isGameFull() {
+    return game.isFull();
   }
 
   /**
@@ -240,7 +423,7 @@ public class GameManager {
    * @return The GeocraftPlayer object, or null if not found.
    */
   public GeocraftPlayer getPlayer(Player player) {
-    return game.getPlayers().stream().filter(p -> p.getPlayer().equals(player)).findFirst().orElse(null);
+    return game.getPlayer(player);
   }
 
   /**
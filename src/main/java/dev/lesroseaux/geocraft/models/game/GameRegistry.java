@@ -0,0 +1,167 @@
+package dev.lesroseaux.geocraft.models.game;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Hosts the GeoCraft games running at the same time on the server.
+ * Every game is owned by the player who created it and builds its guess map in its own slot, so
+ * the games share no state. Players are routed to their game through a map keyed by their UUID.
+ * Every method must be called from the main thread.
+ */
+public class GameRegistry implements Listener {
+  private static GameRegistry instance;
+
+  private final Map<UUID, GameManager> gamesByOwner = new HashMap<>();
+  private final Map<UUID, GameManager> gamesByPlayer = new HashMap<>();
+  private final BitSet usedSlots = new BitSet();
+
+  /**
+   * Private constructor for GameRegistry.
+   */
+  private GameRegistry() {
+  }
+
+  /**
+   * Returns the singleton instance of GameRegistry.
+   *
+   * @return The singleton instance of GameRegistry.
+   */
+  public static GameRegistry getInstance() {
+    if (instance == null) {
+      instance = new GameRegistry();
+    }
+    return instance;
+  }
+
+  /**
+   * Creates a game owned by a player and adds the player to it.
+   * The game gets the first free guess map slot.
+   *
+   * @param plugin The plugin instance.
+   * @param owner  The player creating the game.
+   * @return The created game.
+   * @throws IllegalStateException If the player is already in a game.
+   */
+  public GameManager createGame(Plugin plugin, Player owner) {
+    if (gamesByPlayer.containsKey(owner.getUniqueId())) {
+      throw new IllegalStateException(owner.getName() + " is already in a game.");
+    }
+    int slot = usedSlots.nextClearBit(0);
+    usedSlots.set(slot);
+    GameManager gameManager = new GameManager(this, plugin, owner.getUniqueId(), slot);
+    gamesByOwner.put(owner.getUniqueId(), gameManager);
+    join(owner, gameManager);
+    return gameManager;
+  }
+
+  /**
+   * Adds a player to a game.
+   *
+   * @param player      The player to add.
+   * @param gameManager The game to join.
+   * @throws IllegalStateException If the player is already in a game or the game is full.
+   */
+  public void join(Player player, GameManager gameManager) {
+    if (gameManager.isGameFull()) {
+      throw new IllegalStateException("The game is full.");
+    }
+    if (gamesByPlayer.putIfAbsent(player.getUniqueId(), gameManager) != null) {
+      throw new IllegalStateException(player.getName() + " is already in a game.");
+    }
+    gameManager.addPlayer(player);
+  }
+
+  /**
+   * Removes a player from their game, if any.
+   *
+   * @param player The player to remove.
+   */
+  public void leave(Player player) {
+    GameManager gameManager = gamesByPlayer.remove(player.getUniqueId());
+    if (gameManager != null) {
+      gameManager.removePlayer(player);
+    }
+  }
+
+  /**
+   * Event handler for player quit events.
+   * Removes the player from their game, so that no game keeps a disconnected player.
+   *
+   * @param event The player quit event.
+   */
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    leave(event.getPlayer());
+  }
+
+  /**
+   * Gets the game of a player.
+   *
+   * @param player The player.
+   * @return The game of the player, or null if the player is not in a game.
+   */
+  public GameManager getGame(Player player) {
+    return gamesByPlayer.get(player.getUniqueId());
+  }
+
+  /**
+   * Gets the game owned by a player.
+   *
+   * @param ownerId The UUID of the player who created the game.
+   * @return The game, or null if the player owns no game.
+   */
+  public GameManager getGameOwnedBy(UUID ownerId) {
+    return gamesByOwner.get(ownerId);
+  }
+
+  /**
+   * Gets the games hosted on the server.
+   *
+   * @return The games, keyed by the UUID of their owner.
+   */
+  public Map<UUID, GameManager> getGames() {
+    return Collections.unmodifiableMap(gamesByOwner);
+  }
+
+  /**
+   * Removes an ended game and routes its players to no game anymore.
+   * The guess map slot of the game stays used until its guess map is removed.
+   *
+   * @param gameManager The ended game.
+   * @param players     The UUIDs of the players of the game.
+   */
+  void removeGame(GameManager gameManager, Collection<UUID> players) {
+    gamesByOwner.remove(gameManager.getOwnerId(), gameManager);
+    players.forEach(playerId -> gamesByPlayer.remove(playerId, gameManager));
+  }
+
+  /**
+   * Gives a game to a new owner.
+   *
+   * @param gameManager The game.
+   * @param ownerId     The UUID of the new owner.
+   */
+  void changeOwner(GameManager gameManager, UUID ownerId) {
+    gamesByOwner.remove(gameManager.getOwnerId(), gameManager);
+    gamesByOwner.put(ownerId, gameManager);
+  }
+
+  /**
+   * Frees the guess map slot of a game, so that a new game can build its guess map there.
+   *
+   * @param slot The guess map slot.
+   */
+  void releaseSlot(int slot) {
+    usedSlots.clear(slot);
+  }
+}
\ No newline at end of file
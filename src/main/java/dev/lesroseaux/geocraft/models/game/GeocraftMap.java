@@ -18,6 +18,7 @@ public class GeocraftMap {
   private int maxX;
   private int maxZ;
   private int scale;
+  private int zoomLevel;
   private LocationToMap map;
 
   private final Material roadMaterial = Material.WHITE_CONCRETE;
@@ -180,6 +181,44 @@ public class GeocraftMap {
     this.scale = scale;
   }
 
+  /**
+   * Gets the zoom level the guess map is rendered at.
+   * Level 0 renders one block per {@code scale x scale} cell, and every level halves the resolution.
+   *
+   * @return The zoom level.
+   */
+  public int getZoomLevel() {
+    return zoomLevel;
+  }
+
+  /**
+   * Sets the zoom level the guess map is rendered at.
+   * The zoom level is not saved in the database.
+   *
+   * @param zoomLevel The zoom level.
+   */
+  public void setZoomLevel(int zoomLevel) {
+    this.zoomLevel = Math.max(0, zoomLevel);
+  }
+
+  /**
+   * Gets the number of columns of the world represented by one block of the guess map.
+   *
+   * @return The scale of the rendered zoom level.
+   */
+  public int getRenderScale() {
+    return scale << zoomLevel;
+  }
+
+  /**
+   * Gets the size of the guess map along the X axis, at the rendered zoom level.
+   *
+   * @return The width of the guess map, in blocks.
+   */
+  public int getRenderWidth() {
+    return Math.ceilDiv(maxX - minX, getRenderScale());
+  }
+
   /**
    * Gets the playable zone of the map.
    *
@@ -20,6 +20,7 @@ public class GeocraftPlayer {
   private Location guessedLocation;
   private boolean isAtGuessMap;
   private Location mapCenter;
+  private ItemStack[] savedInventory;
 
   /**
    * Constructs a new GeocraftPlayer instance.
@@ -39,9 +40,18 @@ public class GeocraftPlayer {
 
   /**
    * Sets the player's inventory with the game-specific items.
+   * The inventory the player had before the game is saved the first time, to be given back by
+   * {@link #resetInventory()}.
    */
   public void setInventory() {
     PlayerInventory inventory = this.player.getInventory();
+    if (savedInventory == null) {
+      ItemStack[] contents = inventory.getContents();
+      savedInventory = new ItemStack[contents.length];
+      for (int i = 0; i < contents.length; i++) {
+        savedInventory[i] = contents[i] == null ? null : contents[i].clone();
+      }
+    }
     inventory.clear();
     inventory.addItem(banner.getItem());
     inventory.addItem(new ItemStack(Material.COMPASS));
@@ -53,11 +63,15 @@ public class GeocraftPlayer {
   }
 
   /**
-   * Resets the player's inventory to the previous state.
-   * TODO: Implement the method to reset the player's inventory.
+   * Resets the player's inventory to the one they had before the game, removing the game-specific
+   * items. Nothing is done if the game-specific items were never given.
    */
   public void resetInventory() {
-    // TODO : Reset the player's inventory with the previous one
+    if (savedInventory == null) {
+      return;
+    }
+    player.getInventory().setContents(savedInventory);
+    savedInventory = null;
   }
 
   /**
@@ -132,6 +146,17 @@ public class GeocraftPlayer {
     return isAtGuessMap;
   }
 
+  /**
+   * Removes the banner placed by the player on the guess map, for a new round.
+   */
+  public void resetGuess() {
+    if (guessedLocation != null && guessedLocation.getBlock().getType() == banner.getMaterial()) {
+      guessedLocation.getBlock().setType(Material.AIR);
+    }
+    guessedLocation = null;
+    isAtGuessMap = false;
+  }
+
   /**
    * Sets the guessed location.
    *
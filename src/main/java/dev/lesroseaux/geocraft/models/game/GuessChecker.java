@@ -14,19 +14,19 @@ public class GuessChecker implements Listener {
 
   /**
    * Event handler for block placement during guessing.
+   * Runs for every block placed on the server, so the banner and the player are looked up in
+   * constant time.
    *
    * @param event The BlockPlaceEvent triggered when a block is placed.
    */
   @EventHandler
   public void onGuessing(BlockPlaceEvent event) {
-    if (event.isCancelled()
-        || Banner.bannersList.stream().noneMatch(
-            banner -> banner.getMaterial() == event.getBlockPlaced().getType())) {
+    if (event.isCancelled() || !Banner.isBanner(event.getBlockPlaced().getType())) {
       return;
     }
     Player player = event.getPlayer();
-    GameManager gameManager = GameManager.getInstance();
-    if (!gameManager.isGameStarted() || !gameManager.isPlayerInGame(player)) {
+    GameManager gameManager = GameRegistry.getInstance().getGame(player);
+    if (gameManager == null || !gameManager.isGameStarted()) {
       return;
     }
     GeocraftPlayer geocraftPlayer = gameManager.getPlayer(player);
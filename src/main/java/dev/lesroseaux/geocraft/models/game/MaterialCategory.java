@@ -0,0 +1,51 @@
+package dev.lesroseaux.geocraft.models.game;
+
+import org.bukkit.Material;
+
+/**
+ * Categories of terrain drawn on the guess map.
+ * The declaration order is the priority order when a material is listed in several categories.
+ */
+public enum MaterialCategory {
+  GRASS("materials.grass"),
+  WATER("materials.water"),
+  BUILDING("materials.building"),
+  ROAD("materials.road"),
+  SAND("materials.sand");
+
+  private final String path;
+
+  /**
+   * Constructs a MaterialCategory.
+   *
+   * @param path The path of the list of materials of the category in the configuration.
+   */
+  MaterialCategory(String path) {
+    this.path = path;
+  }
+
+  /**
+   * Gets the path of the list of materials of the category in the configuration.
+   *
+   * @return The configuration path.
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Gets the material used to draw the category on a guess map.
+   *
+   * @param geocraftMap The GeocraftMap.
+   * @return The material of the category on the map.
+   */
+  public Material getMapMaterial(GeocraftMap geocraftMap) {
+    return switch (this) {
+      case GRASS -> geocraftMap.getGrassMaterial();
+      case WATER -> geocraftMap.getWaterMaterial();
+      case BUILDING -> geocraftMap.getBuildingMaterial();
+      case ROAD -> geocraftMap.getRoadMaterial();
+      case SAND -> geocraftMap.getSandMaterial();
+    };
+  }
+}
\ No newline at end of file
@@ -0,0 +1,215 @@
+package dev.lesroseaux.geocraft.models.game;
+
+import dev.lesroseaux.geocraft.models.location.Road;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Picks the locations the players are teleported to at the start of a round.
+ * The points are spread uniformly along the roads of the playable zone: a table of the prefix
+ * sums of the road lengths is built once per game, and a point is drawn with a binary search in
+ * it, so long roads are picked more often than short ones. The points of a round can be kept a
+ * minimum distance apart, and points inside excluded areas are avoided. The height of the
+ * ground of every column a player is teleported to is cached for the next rounds.
+ * Every method must be called from the main thread.
+ */
+public class SpawnSampler {
+  private static final Logger LOGGER = Logger.getLogger(SpawnSampler.class.getName());
+  private static final int MAX_ATTEMPTS = 16;
+
+  private final World world;
+  private final Random random;
+  private final double[] fromX;
+  private final double[] fromZ;
+  private final double[] toX;
+  private final double[] toZ;
+  private final double[] cumulativeLengths;
+  private final double minSpacingSquared;
+  private final List<double[]> exclusions;
+  private final Map<Long, Integer> safeHeights = new HashMap<>();
+  private final List<Location> spawns = new ArrayList<>();
+
+  /**
+   * Constructs a SpawnSampler.
+   *
+   * @param world      The world of the roads.
+   * @param roads      The roads of the playable zone.
+   * @param random     The random generator of the game.
+   * @param minSpacing The minimum distance between two points of a round, 0 for none.
+   * @param exclusions The excluded areas, each one given as {minX, minZ, maxX, maxZ}.
+   * @throws IllegalArgumentException If there is no road.
+   */
+  public SpawnSampler(World world, List<Road> roads, Random random, double minSpacing,
+                      List<double[]> exclusions) {
+    if (roads.isEmpty()) {
+      throw new IllegalArgumentException("The playable zone has no road.");
+    }
+    this.world = world;
+    this.random = random;
+    this.minSpacingSquared = minSpacing * minSpacing;
+    this.exclusions = exclusions;
+    int count = roads.size();
+    fromX = new double[count];
+    fromZ = new double[count];
+    toX = new double[count];
+    toZ = new double[count];
+    cumulativeLengths = new double[count];
+    double total = 0;
+    for (int i = 0; i < count; i++) {
+      Road road = roads.get(i);
+      fromX[i] = road.getZonePoint1().getX();
+      fromZ[i] = road.getZonePoint1().getZ();
+      toX[i] = road.getZonePoint2().getX();
+      toZ[i] = road.getZonePoint2().getZ();
+      // A road made of a single block still weighs as much as a road of one block.
+      total += Math.max(1, Math.hypot(toX[i] - fromX[i], toZ[i] - fromZ[i]));
+      cumulativeLengths[i] = total;
+    }
+  }
+
+  /**
+   * Constructs a SpawnSampler with the spacing and the excluded areas of the configuration.
+   *
+   * @param config The configuration.
+   * @param world  The world of the roads.
+   * @param roads  The roads of the playable zone.
+   * @param random The random generator of the game.
+   * @return The spawn sampler.
+   * @throws IllegalArgumentException If there is no road.
+   */
+  public static SpawnSampler fromConfig(FileConfiguration config, World world, List<Road> roads,
+                                        Random random) {
+    List<double[]> exclusions = new ArrayList<>();
+    for (String area : config.getStringList("games.spawnExclusions")) {
+      String[] bounds = area.trim().split("\\s+");
+      try {
+        if (bounds.length != 4) {
+          throw new NumberFormatException();
+        }
+        double x1 = Double.parseDouble(bounds[0]);
+        double z1 = Double.parseDouble(bounds[1]);
+        double x2 = Double.parseDouble(bounds[2]);
+        double z2 = Double.parseDouble(bounds[3]);
+        exclusions.add(new double[] {Math.min(x1, x2), Math.min(z1, z2),
+            Math.max(x1, x2), Math.max(z1, z2)});
+      } catch (NumberFormatException e) {
+        LOGGER.warning("Ignoring the spawn exclusion \"" + area
+            + "\", expected \"<minX> <minZ> <maxX> <maxZ>\".");
+      }
+    }
+    return new SpawnSampler(world, roads, random, config.getDouble("games.spawnSpacing"),
+        exclusions);
+  }
+
+  /**
+   * Forgets the points of the previous round, for a new round.
+   */
+  public void clearSpawns() {
+    spawns.clear();
+  }
+
+  /**
+   * Picks the next point of the round, on the ground.
+   * Up to {@link #MAX_ATTEMPTS} points are drawn until one is far enough from the other points of
+   * the round and outside the excluded areas. When none is, the first point outside the excluded
+   * areas is kept, or the last point drawn if they all are inside.
+   *
+   * @return The location to teleport a player to.
+   */
+  public Location nextSpawn() {
+    double[] point = new double[2];
+    double fallbackX = 0;
+    double fallbackZ = 0;
+    boolean hasFallback = false;
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      samplePoint(point);
+      if (isExcluded(point[0], point[1])) {
+        continue;
+      }
+      if (isSpaced(point[0], point[1])) {
+        return addSpawn(point[0], point[1]);
+      }
+      if (!hasFallback) {
+        fallbackX = point[0];
+        fallbackZ = point[1];
+        hasFallback = true;
+      }
+    }
+    return hasFallback ? addSpawn(fallbackX, fallbackZ) : addSpawn(point[0], point[1]);
+  }
+
+  /**
+   * Draws a point uniformly along the roads.
+   *
+   * @param point The array receiving the X and Z coordinates of the point.
+   */
+  private void samplePoint(double[] point) {
+    double total = cumulativeLengths[cumulativeLengths.length - 1];
+    double offset = random.nextDouble() * total;
+    int road = Arrays.binarySearch(cumulativeLengths, offset);
+    road = Math.min(road < 0 ? -road - 1 : road, cumulativeLengths.length - 1);
+    double start = road == 0 ? 0 : cumulativeLengths[road - 1];
+    double t = (offset - start) / (cumulativeLengths[road] - start);
+    point[0] = fromX[road] + t * (toX[road] - fromX[road]);
+    point[1] = fromZ[road] + t * (toZ[road] - fromZ[road]);
+  }
+
+  /**
+   * Checks if a point is inside an excluded area.
+   *
+   * @param x The X coordinate of the point.
+   * @param z The Z coordinate of the point.
+   * @return True if the point is excluded, false otherwise.
+   */
+  private boolean isExcluded(double x, double z) {
+    for (double[] area : exclusions) {
+      if (x >= area[0] && z >= area[1] && x <= area[2] && z <= area[3]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if a point is far enough from the other points of the round.
+   *
+   * @param x The X coordinate of the point.
+   * @param z The Z coordinate of the point.
+   * @return True if the point is far enough, false otherwise.
+   */
+  private boolean isSpaced(double x, double z) {
+    for (Location spawn : spawns) {
+      double dx = spawn.getX() - x;
+      double dz = spawn.getZ() - z;
+      if (dx * dx + dz * dz < minSpacingSquared) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds a point to the points of the round, on top of the ground of its column.
+   *
+   * @param x The X coordinate of the point.
+   * @param z The Z coordinate of the point.
+   * @return The location of the point.
+   */
+  private Location addSpawn(double x, double z) {
+    int blockX = (int) Math.floor(x);
+    int blockZ = (int) Math.floor(z);
+    int y = safeHeights.computeIfAbsent(((long) blockX << 32) | (blockZ & 0xFFFF_FFFFL),
+        column -> world.getHighestBlockYAt(blockX, blockZ) + 1);
+    Location spawn = new Location(world, blockX + 0.5, y, blockZ + 0.5);
+    spawns.add(spawn);
+    return spawn;
+  }
+}
\ No newline at end of file
@@ -1,6 +1,5 @@
 package dev.lesroseaux.geocraft.models.location;
 
-import dev.lesroseaux.geocraft.data.dao.DistrictDao;
 import dev.lesroseaux.geocraft.data.dao.RoadDao;
 import java.util.ArrayList;
 import lombok.Getter;
@@ -47,14 +46,7 @@ public class City implements PlayableZone {
    */
   @Override
   public ArrayList<Road> getZones() {
-    DistrictDao districtDao = new DistrictDao();
-    ArrayList<District> districts = districtDao.getAllDistrictsByCityId(cityId);
-    ArrayList<Road> roads = new ArrayList<>();
-    RoadDao roadDao = new RoadDao();
-    for (District district : districts) {
-      roads.addAll(roadDao.getZonesByDistrictId(district.getDistrictId()));
-    }
-    return roads;
+    return new RoadDao().getZonesByCityId(cityId);
   }
 
   /**
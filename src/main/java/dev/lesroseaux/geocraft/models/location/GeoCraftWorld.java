@@ -1,6 +1,6 @@
 package dev.lesroseaux.geocraft.models.location;
 
-import dev.lesroseaux.geocraft.data.dao.RegionDao;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
 import java.util.ArrayList;
 import java.util.UUID;
 import lombok.Getter;
@@ -53,12 +53,7 @@ public class GeoCraftWorld implements PlayableZone {
    */
   @Override
   public ArrayList<Road> getZones() {
-    ArrayList<Region> regions = new RegionDao().getAllRegionsByWorldId(this.worldId);
-    ArrayList<Road> roads = new ArrayList<>();
-    for (Region region : regions) {
-      roads.addAll(region.getZones());
-    }
-    return roads;
+    return new RoadDao().getZonesByWorldId(worldId);
   }
 
   /**
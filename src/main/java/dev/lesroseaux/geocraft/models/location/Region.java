@@ -1,6 +1,6 @@
 package dev.lesroseaux.geocraft.models.location;
 
-import dev.lesroseaux.geocraft.data.dao.CityDao;
+import dev.lesroseaux.geocraft.data.dao.RoadDao;
 import java.util.ArrayList;
 import java.util.UUID;
 import lombok.Getter;
@@ -47,13 +47,7 @@ public class Region implements PlayableZone {
    */
   @Override
   public ArrayList<Road> getZones() {
-    CityDao cityDao = new CityDao();
-    ArrayList<City> cities = cityDao.getAllCitiesByRegionId(regionId);
-    ArrayList<Road> roads = new ArrayList<>();
-    for (City city : cities) {
-      roads.addAll(city.getZones());
-    }
-    return roads;
+    return new RoadDao().getZonesByRegionId(regionId);
   }
 
   /**
@@ -0,0 +1,111 @@
+package dev.lesroseaux.geocraft.models.score;
+
+import java.util.Arrays;
+
+/**
+ * Computes the scores of the guesses of a round on a map in a single pass.
+ * The guesses and the goals are stored in primitive coordinate arrays reused from one round to
+ * the next, so scoring a round allocates nothing once the arrays are large enough for the
+ * players. A guess on the goal scores {@link #MAX_SCORE} points, and the score decreases
+ * linearly with the distance to the goal down to 0 at the length of the diagonal of the map,
+ * which is computed once per map.
+ */
+public class ScoreKernel {
+  /**
+   * Score of a guess on the goal.
+   */
+  public static final int MAX_SCORE = 5000;
+
+  private final double inverseMaxDistance;
+  private double[] guessX = new double[16];
+  private double[] guessZ = new double[16];
+  private double[] goalX = new double[16];
+  private double[] goalZ = new double[16];
+  private int[] scores = new int[16];
+  private int size;
+
+  /**
+   * Constructs a ScoreKernel for a map.
+   *
+   * @param width The size of the map along the X axis, in blocks.
+   * @param depth The size of the map along the Z axis, in blocks.
+   */
+  public ScoreKernel(double width, double depth) {
+    double maxDistance = Math.sqrt(width * width + depth * depth);
+    this.inverseMaxDistance = maxDistance > 0 ? 1 / maxDistance : 0;
+  }
+
+  /**
+   * Removes the guesses of the previous round.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Adds the guess of a player.
+   *
+   * @param guessX The world X coordinate of the guess.
+   * @param guessZ The world Z coordinate of the guess.
+   * @param goalX  The world X coordinate of the goal.
+   * @param goalZ  The world Z coordinate of the goal.
+   */
+  public void add(double guessX, double guessZ, double goalX, double goalZ) {
+    if (size == scores.length) {
+      int capacity = size * 2;
+      this.guessX = Arrays.copyOf(this.guessX, capacity);
+      this.guessZ = Arrays.copyOf(this.guessZ, capacity);
+      this.goalX = Arrays.copyOf(this.goalX, capacity);
+      this.goalZ = Arrays.copyOf(this.goalZ, capacity);
+      this.scores = Arrays.copyOf(this.scores, capacity);
+    }
+    this.guessX[size] = guessX;
+    this.guessZ[size] = guessZ;
+    this.goalX[size] = goalX;
+    this.goalZ[size] = goalZ;
+    size++;
+  }
+
+  /**
+   * Computes the scores of the added guesses.
+   *
+   * @return The scores, in the order the guesses were added. Only the first {@link #size()}
+   *         values are meaningful, and the array is overwritten by the next computation.
+   */
+  public int[] computeScores() {
+    computeScores(guessX, guessZ, goalX, goalZ, size, inverseMaxDistance, scores);
+    return scores;
+  }
+
+  /**
+   * Gets the number of added guesses.
+   *
+   * @return The number of added guesses.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Computes the scores of guesses.
+   * The loop only reads and writes flat arrays of the same length with no branch, so the JIT can
+   * vectorize it.
+   *
+   * @param guessX             The world X coordinates of the guesses.
+   * @param guessZ             The world Z coordinates of the guesses.
+   * @param goalX              The world X coordinates of the goals.
+   * @param goalZ              The world Z coordinates of the goals.
+   * @param count              The number of guesses.
+   * @param inverseMaxDistance The inverse of the distance scoring no point.
+   * @param scores             The array receiving the scores.
+   */
+  static void computeScores(double[] guessX, double[] guessZ, double[] goalX, double[] goalZ,
+                            int count, double inverseMaxDistance, int[] scores) {
+    for (int i = 0; i < count; i++) {
+      double dx = guessX[i] - goalX[i];
+      double dz = guessZ[i] - goalZ[i];
+      double ratio = Math.sqrt(dx * dx + dz * dz) * inverseMaxDistance;
+      scores[i] = (int) (Math.max(0, 1 - ratio) * MAX_SCORE);
+    }
+  }
+}
\ No newline at end of file
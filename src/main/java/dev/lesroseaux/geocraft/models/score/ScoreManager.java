@@ -5,6 +5,7 @@ import dev.lesroseaux.geocraft.models.game.GeocraftPlayer;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.bukkit.Location;
@@ -16,6 +17,10 @@ import org.bukkit.Location;
 @NoArgsConstructor
 public class ScoreManager {
   private final Map<GeocraftPlayer, Score> scores = new HashMap<>();
+  @Getter(AccessLevel.NONE)
+  private ScoreKernel kernel;
+  @Getter(AccessLevel.NONE)
+  private GeocraftMap kernelMap;
 
   /**
    * Adds a player to the score manager.
@@ -92,39 +97,37 @@ public class ScoreManager {
 
   /**
    * Calculates the score for each player based on their guessed location and the goal location.
+   * The guesses are mapped back to the world and scored by the kernel of the map in a single
+   * pass.
    *
    * @param map The GeoCraft map.
    * @param mapStart The starting location of the map.
    */
   public void calculateScore(GeocraftMap map, Location mapStart) {
+    if (kernelMap != map) {
+      kernel = new ScoreKernel(map.getMaxX() - map.getMinX(), map.getMaxZ() - map.getMinZ());
+      kernelMap = map;
+    }
+    kernel.clear();
+    int renderScale = map.getRenderScale();
+    // A block of the guess map covers renderScale x renderScale columns of the world, the guess
+    // is mapped to the center of those columns.
+    double originX = map.getMinX() + (0.5 - mapStart.getBlockX()) * renderScale;
+    double originZ = map.getMinZ() + (0.5 - mapStart.getBlockZ()) * renderScale;
     scores.forEach((player, score) -> {
-      // Calculate score
       Location goal = player.getTpLocation();
       Location guess = player.getGuessedLocation();
-
       if (goal != null && guess != null) {
-        Location transformedGuess = transformLocation(guess, map, mapStart);
-        transformedGuess.setY(goal.getY());
-        double distance = goal.distance(transformedGuess);
-        double maxDistance = Math.sqrt(Math.pow(map.getMaxX() - map.getMinX(), 2)
-            + Math.pow(map.getMaxZ() - map.getMinZ(), 2));
-        int scoreValue = (int) ((1 - distance / maxDistance) * 5000);
-        score.addScore(scoreValue);
+        kernel.add(originX + guess.getBlockX() * renderScale,
+            originZ + guess.getBlockZ() * renderScale, goal.getX(), goal.getZ());
+      }
+    });
+    int[] results = kernel.computeScores();
+    int[] index = {0};
+    scores.forEach((player, score) -> {
+      if (player.getTpLocation() != null && player.getGuessedLocation() != null) {
+        score.addScore(results[index[0]++]);
       }
     });
-  }
-
-  /**
-   * Transforms a guessed location to the corresponding location on the map.
-   *
-   * @param guessLocation The guessed location.
-   * @param map The GeoCraft map.
-   * @param guessMapStart The starting location of the guessed map.
-   * @return The transformed location.
-   */
-  private Location transformLocation(Location guessLocation, GeocraftMap map, Location guessMapStart) {
-    double newX = guessLocation.getX() * map.getScale() + map.getMinX() + guessMapStart.getX();
-    double newZ = guessLocation.getZ() * map.getScale() + map.getMinZ() + guessMapStart.getZ();
-    return new Location(guessLocation.getWorld(), newX, guessLocation.getY(), newZ);
   }
 }
\ No newline at end of file
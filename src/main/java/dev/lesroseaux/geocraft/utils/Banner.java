@@ -1,6 +1,7 @@
 package dev.lesroseaux.geocraft.utils;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import org.bukkit.Color;
 import org.bukkit.Material;
@@ -44,6 +45,29 @@ public class Banner {
       ORANGE_BANNER, YELLOW_BANNER, LIME_BANNER, GREEN_BANNER, CYAN_BANNER, LIGHT_BLUE_BANNER,
       BLUE_BANNER, PURPLE_BANNER, MAGENTA_BANNER, PINK_BANNER);
 
+  private static final BitSet bannerMaterials = getBannerMaterials();
+
+  /**
+   * Builds the set of the ordinals of the banner materials.
+   *
+   * @return The ordinals of the banner materials.
+   */
+  private static BitSet getBannerMaterials() {
+    BitSet materials = new BitSet(Material.values().length);
+    bannersList.forEach(banner -> materials.set(banner.material.ordinal()));
+    return materials;
+  }
+
+  /**
+   * Checks if a material is the material of a banner, in constant time.
+   *
+   * @param material The material to check.
+   * @return True if the material is the material of a banner, false otherwise.
+   */
+  public static boolean isBanner(Material material) {
+    return bannerMaterials.get(material.ordinal());
+  }
+
   /**
    * Gets the ItemStack representation of the banner.
    *